@@ -0,0 +1,146 @@
+import java.util.*;
+
+/**
+ * A size-bounded, least-recently-used cache of adjudication results, placed in front of `Judge::judge()` (and its subclasses, e.g. `Referee`)<br><br>
+ *
+ * Entries are keyed by the `OrderSetDigest` of the Orders to judge, salted with the Judge's `variantKey()`;
+ * on a hit, the stored resolution is applied via `Judge::applyResolution(...)` instead of judging again.<br><br>
+ *
+ * On a miss, the Judge is run over the <i>canonical</i> ordering of its Orders: plain `Judge` resolutions of paradoxical
+ * Order sets can depend on iteration order, and the cached resolution must be a function of the Order set alone.<br><br>
+ *
+ * Exposes hit rate, eviction count, and (estimated) memory use as metrics. All public methods are thread-safe.
+ */
+public class AdjudicationCache {
+
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    // Rough heap footprint estimates, used for the memory metric (object headers + fields + references)
+    public static final int ESTIMATED_ORDER_BYTES = 64;
+    public static final int ESTIMATED_ENTRY_BYTES = 128;  // map entry + digest + List overhead
+
+
+    private final int                                   maxEntries;
+    private final LinkedHashMap<OrderSetDigest, List<Order>> entries;
+
+    private long hits = 0, misses = 0, evictions = 0;
+    private long estimatedBytes = 0;
+
+
+    public AdjudicationCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public AdjudicationCache(int maxEntries) {
+
+        if (maxEntries <= 0)
+            throw new IllegalArgumentException(String.format("`%s`: maxEntries must be positive (was %d)",
+                    this.getClass().getSimpleName(), maxEntries));
+
+        this.maxEntries = maxEntries;
+        // access-order `LinkedHashMap` --> iteration order is least-recently-used first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OrderSetDigest, List<Order>> eldest) {
+                if (size() <= AdjudicationCache.this.maxEntries)
+                    return false;
+                evictions++;
+                estimatedBytes -= estimateBytes(eldest.getValue());
+                return true;
+            }
+        };
+
+    }
+
+
+    /**
+     * Judges `judge`'s Orders, or applies the stored resolution if the same Orders have been judged before by an equivalent Judge
+     * @param judge Judge to run
+     * @return True on a cache hit, false if `judge.judge()` was called
+     */
+    public boolean judge(Judge judge) {
+
+        OrderSetDigest key = OrderSetDigest.of(judge.orders).salted(judge.variantKey());
+
+        List<Order> resolution = lookup(key);
+        if (resolution != null) {
+            judge.applyResolution(resolution);
+            return true;
+        }
+
+        judge.orders = Orders.canonicalize(judge.orders);  // same Order objects, canonical iteration order
+        judge.judge();
+        store(key, Orders.deepCopy(List.copyOf(judge.orders)));
+        return false;
+
+    }
+
+    private synchronized List<Order> lookup(OrderSetDigest key) {
+
+        List<Order> resolution = entries.get(key);
+        if (resolution != null)
+            hits++;
+        else
+            misses++;
+        return resolution;
+
+    }
+
+    private synchronized void store(OrderSetDigest key, List<Order> resolution) {
+
+        List<Order> previous = entries.put(key, resolution);
+        if (previous != null)
+            estimatedBytes -= estimateBytes(previous);
+        estimatedBytes += estimateBytes(resolution);
+
+    }
+
+    private static long estimateBytes(List<Order> resolution) {
+        return ESTIMATED_ENTRY_BYTES + (long) resolution.size() * ESTIMATED_ORDER_BYTES;
+    }
+
+
+    public synchronized void clear() {
+        entries.clear();
+        estimatedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return (lookups == 0 ? 0.0 : (double) hits / lookups);
+    }
+
+    public synchronized long estimatedMemoryBytes() {
+        return estimatedBytes;
+    }
+
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s[entries=%d/%d, hits=%d, misses=%d, hitRate=%.3f, evictions=%d, ~%d KiB]",
+                this.getClass().getSimpleName(), entries.size(), maxEntries, hits, misses, hitRate(), evictions,
+                estimatedBytes / 1024);
+    }
+
+}
@@ -0,0 +1,148 @@
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Abstract class of static utility functions re: adjustment (Winter) phases<br><br>
+ *
+ * Each Nation's adjustment (+builds / -disbands) is derived straight from the board: supply centers owned - units,
+ *      both of which `BoardState` keeps counted incrementally as units move, so it is O(1) per Nation.<br>
+ * Nations that order too few disbands fall into <i>civil disorder</i>: their units furthest from any of their home supply centers
+ *      are disbanded first (ties: fleets before armies, then alphabetically by Province name).
+ *      Distances are counted in moves, through land & sea alike (see `DistanceTables`), and are precomputed once per Nation.<br><br>
+ *
+ * `adjustAll(...)` processes the Winter phases of many games in one (parallel) batch.
+ */
+public abstract class AdjustmentEngine {
+
+
+    private static final Province[] PROVINCES       = Province.values();
+    private static final Nation[]   NATIONS         = Nation.values();
+
+    public  static final int        UNREACHABLE     = DistanceTables.UNREACHABLE;
+
+    private static final byte[][]   HOME_DISTANCES  = new byte[NATIONS.length][PROVINCES.length];  // [Nation][Province]
+
+    static {
+
+        DistanceTables distances = DistanceTables.standard();
+        for (Nation nation : NATIONS) {
+            List<Province> homes = new ArrayList<>();
+            for (Province province : PROVINCES) {
+                if (province.supplyCenter && province.parent == null && province.owner == nation)
+                    homes.add(province);
+            }
+            for (Province province : PROVINCES)
+                HOME_DISTANCES[nation.ordinal()][province.ordinal()] =
+                        (byte) distances.distanceToNearest(DistanceTables.Mode.ANY, province, homes);
+        }
+
+    }
+
+
+    /**
+     * @return # of moves (through land & sea) from `province` to the nearest home supply center of `nation`, or `UNREACHABLE`
+     */
+    public static int homeDistance(Nation nation, Province province) {
+        return HOME_DISTANCES[nation.ordinal()][province.ordinal()];
+    }
+
+    /**
+     * @return # of builds (if positive) or required disbands (if negative) of `nation` on `board`
+     */
+    public static int adjustment(BoardState board, Nation nation) {
+        return board.countSupplyCenters(nation) - board.countUnits(nation);
+    }
+
+    /**
+     * @return Whether a unit of type `unitType` may be built (i.e. placed) at exactly `location`
+     */
+    public static boolean canBuild(UnitType unitType, Province location) {
+        return ProvinceMasks.canOccupy(unitType, location);
+    }
+
+
+    /**
+     * Ranks a Nation's units for civil disorder disbands: furthest from home first, then fleets before armies, then by Province name
+     * @param board Board to rank on
+     * @param nation Nation whose units to rank
+     * @return A new List of DESTROY Orders, one per unit of `nation`, in disband order
+     */
+    public static List<Order> civilDisorderRanking(BoardState board, Nation nation) {
+
+        List<Order> destroys = new ArrayList<>();
+        for (Order unit : board.toOrders()) {
+            if (unit.owner == nation) {
+                destroys.add(new Order(unit.owner, unit.unitType, unit.pos0, OrderType.DESTROY));
+            }
+        }
+
+        destroys.sort(Comparator
+                .comparingInt((Order order) -> -homeDistance(nation, order.pos0))
+                .thenComparing(order -> order.unitType != UnitType.FLEET)
+                .thenComparing(order -> order.pos0.fullName));
+        return destroys;
+
+    }
+
+    /**
+     * Adjudicates & applies one Winter phase:<br>
+     *      1. supply centers change hands to their occupiers (if not done already)<br>
+     *      2. `orders` (BUILDs & DESTROYs) are judged by a `WinterJudge` against the board, and successful ones are applied<br>
+     *      3. Nations still over their supply center count disband units by civil disorder<br>
+     *      4. the board moves on to the next year's Spring
+     *
+     * @param board Board at the start of the Winter phase
+     * @param orders BUILD & DESTROY Orders of the phase (judged in place)
+     * @return A new `BoardState` for the next Spring
+     */
+    public static BoardState adjust(BoardState board, Collection<Order> orders) {
+
+        BoardState winter = board.edit().captureSupplyCenters().build();
+
+        WinterJudge judge = new WinterJudge(orders, winter);
+        judge.judge();
+
+        BoardState.Editor editor = winter.edit();
+        for (Order order : orders) {
+            if (!order.verdict || order.pos0 == null)
+                continue;
+            if (order.orderType == OrderType.BUILD)
+                editor.placeUnit(order.pos0, order.owner, order.unitType);
+            else if (order.orderType == OrderType.DESTROY)
+                editor.removeUnit(order.pos0);
+        }
+        BoardState adjusted = editor.build();
+
+        editor = adjusted.edit();
+        for (Nation nation : NATIONS) {
+            int disbands = -adjustment(adjusted, nation);
+            if (disbands <= 0)
+                continue;
+            for (Order destroy : civilDisorderRanking(adjusted, nation).subList(0, disbands))
+                editor.removeUnit(destroy.pos0);
+        }
+
+        return editor.setPhase(board.year + 1, Season.SPRING).build();
+
+    }
+
+    /**
+     * Adjudicates & applies the Winter phases of many games at once (in parallel); see `adjust(...)`
+     * @param boards Board of each game at the start of its Winter phase
+     * @param orders BUILD & DESTROY Orders of each game
+     * @return A new List of the next Spring's board of each game, in the same order
+     */
+    public static List<BoardState> adjustAll(List<BoardState> boards, List<? extends Collection<Order>> orders) {
+
+        if (boards.size() != orders.size())
+            throw new IllegalArgumentException(String.format("`AdjustmentEngine::adjustAll(...)`: %d boards but %d Order sets",
+                    boards.size(), orders.size()));
+
+        BoardState[] adjusted = new BoardState[boards.size()];
+        IntStream.range(0, boards.size()).parallel()
+                .forEach(i -> adjusted[i] = adjust(boards.get(i), orders.get(i)));
+        return Arrays.asList(adjusted);
+
+    }
+
+}
@@ -0,0 +1,196 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses Orders in "<a href="https://www.backstabbr.com/"><i>Backstabbr</a> notation</i>" -- the notation of `Order.toString()`,
+ * one Order per line:<br>
+ *      ~ "Fr A Par - Bur", "Fr F Bre H"<br>
+ *      ~ "Fr A Mar S Gas - Spa", "Fr A Mar S Bur H", "En F NTH C Lon - Nwy"<br>
+ *      ~ "Ru F StP/sc R Bot", "Ru F StP/sc PIFF" (RETREAT; the Orders are `dislodged`)<br>
+ *      ~ "Ge A Kie BUILD", "It F Nap DESTROY"<br>
+ *      ~ "Au A Vie" (no order -- parsed as a HOLD)<br><br>
+ *
+ * Nations are `Nation.getPrefix()` prefixes; Provinces are `Province.toString()` names (coasts after `Province.SUFFIX_DELIM`),
+ * matched in place by `ProvinceTrie.ABBREVIATIONS`. Like `DATCParser`, parsing is a single pass over index ranges -- no regex, no splitting.
+ */
+public class BackstabbrParser implements TestCaseParser {
+
+    public static final String TC_PREFIX = BackstabbrParser.class.getName();
+
+    private static final Nation[] NATIONS = Nation.values();
+    private static final String[] PREFIXES = new String[NATIONS.length];
+
+    static {
+        for (Nation nation : NATIONS)
+            PREFIXES[nation.ordinal()] = nation.getPrefix();
+    }
+
+    protected int TC_ID = 1;
+
+
+    public TestCase parse(String source) {
+        return new TestCase(String.format("%s_%04d", TC_PREFIX, this.TC_ID++), parseOrders(source));
+    }
+
+    /**
+     * @param text Orders in Backstabbr notation, one per line (blank lines are skipped)
+     * @return The Orders in `text`, in order
+     * @throws IllegalArgumentException If a line is malformed
+     */
+    public static List<Order> parseOrders(CharSequence text) {
+
+        List<Order> orders = new ArrayList<>();
+
+        int length = text.length();
+        for (int lineStart = 0; lineStart < length; ) {
+
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n')
+                lineEnd++;
+
+            int start = skipWhitespace(text, lineStart, lineEnd);
+            int end = lineEnd;
+            while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+                end--;
+            if (start < end)
+                orders.add(parseOrder(text, start, end));
+
+            lineStart = lineEnd + 1;
+
+        }
+
+        return orders;
+
+    }
+
+    /**
+     * @param order An Order in Backstabbr notation, e.g. "Fr A Mar S Gas - Spa"
+     * @return A new Order
+     * @throws IllegalArgumentException If the Order is malformed
+     */
+    public static Order parseOrder(CharSequence order) {
+        return parseOrder(order, 0, order.length());
+    }
+
+    /**
+     * @param text Text containing the Order
+     * @param start Index of the Order's first character
+     * @param end Index past the Order's last character
+     * @return A new Order
+     * @throws IllegalArgumentException If the Order is malformed
+     */
+    public static Order parseOrder(CharSequence text, int start, int end) {
+
+        // Parse NATION
+        int tokenEnd = skipToken(text, start, end);
+        Nation nation = null;
+        for (Nation candidate : NATIONS) {
+            if (tokenEquals(text, start, tokenEnd, PREFIXES[candidate.ordinal()])) {
+                nation = candidate;
+                break;
+            }
+        }
+        if (nation == null)
+            throw error(text, start, end, "unknown nation prefix");
+        int pos = skipWhitespace(text, tokenEnd, end);
+
+        // Parse UNIT TYPE
+        tokenEnd = skipToken(text, pos, end);
+        UnitType unitType = (tokenEnd - pos == 1 ? UnitType.valueOfMarker(text.charAt(pos)) : null);
+        if (unitType == null)
+            throw error(text, start, end, "unknown unit type");
+        pos = skipWhitespace(text, tokenEnd, end);
+
+        // Parse ORIGIN (pos0)
+        long match = matchProvince(text, pos, end, start);
+        Province origin = ProvinceTrie.province(match);
+        pos = skipWhitespace(text, ProvinceTrie.end(match), end);
+
+        // Parse ORDER TYPE, pos1 & pos2
+        OrderType orderType;
+        Province pos1 = null, pos2 = null;
+        tokenEnd = skipToken(text, pos, end);
+        if (pos == end)  // "no orders"
+            orderType = OrderType.HOLD;
+        else if (tokenEquals(text, pos, tokenEnd, "-")) {
+            orderType = OrderType.MOVE;
+            match = matchProvince(text, skipWhitespace(text, tokenEnd, end), end, start);
+            pos1 = ProvinceTrie.province(match);
+            pos = ProvinceTrie.end(match);
+        } else if (tokenEquals(text, pos, tokenEnd, "H")) {
+            orderType = OrderType.HOLD;
+            pos = tokenEnd;
+        } else if (tokenEquals(text, pos, tokenEnd, "S") || tokenEquals(text, pos, tokenEnd, "C")) {
+            orderType = (text.charAt(pos) == 'S' ? OrderType.SUPPORT : OrderType.CONVOY);
+            match = matchProvince(text, skipWhitespace(text, tokenEnd, end), end, start);
+            pos1 = ProvinceTrie.province(match);
+            pos = skipWhitespace(text, ProvinceTrie.end(match), end);
+            tokenEnd = skipToken(text, pos, end);
+            if (tokenEquals(text, pos, tokenEnd, "-")) {
+                match = matchProvince(text, skipWhitespace(text, tokenEnd, end), end, start);
+                pos2 = ProvinceTrie.province(match);
+                pos = ProvinceTrie.end(match);
+            } else if (orderType == OrderType.SUPPORT && tokenEquals(text, pos, tokenEnd, "H"))
+                pos = tokenEnd;
+            else
+                throw error(text, start, end, (orderType == OrderType.SUPPORT ? "expected \"H\" or \"-\"" : "expected \"-\""));
+        } else if (tokenEquals(text, pos, tokenEnd, "R")) {
+            orderType = OrderType.RETREAT;
+            match = matchProvince(text, skipWhitespace(text, tokenEnd, end), end, start);
+            pos1 = ProvinceTrie.province(match);
+            pos = ProvinceTrie.end(match);
+        } else if (tokenEquals(text, pos, tokenEnd, "PIFF")) {
+            orderType = OrderType.RETREAT;
+            pos = tokenEnd;
+        } else if (tokenEquals(text, pos, tokenEnd, "BUILD")) {
+            orderType = OrderType.BUILD;
+            pos = tokenEnd;
+        } else if (tokenEquals(text, pos, tokenEnd, "DESTROY")) {
+            orderType = OrderType.DESTROY;
+            pos = tokenEnd;
+        } else
+            throw error(text, start, end, "unknown order type");
+
+        if (skipWhitespace(text, pos, end) != end)
+            throw error(text, start, end, "unexpected trailing text");
+
+        return new Order(nation, unitType, origin, orderType, pos1, pos2, orderType == OrderType.RETREAT);
+
+    }
+
+
+    private static long matchProvince(CharSequence text, int pos, int end, int orderStart) {
+        long match = ProvinceTrie.ABBREVIATIONS.match(text, pos, end);
+        if (match == ProvinceTrie.NO_MATCH)
+            throw error(text, orderStart, end, "unknown province");
+        return match;
+    }
+
+    private static boolean tokenEquals(CharSequence text, int start, int end, String token) {
+        if (end - start != token.length())
+            return false;
+        for (int i = 0; i < token.length(); i++) {
+            if (text.charAt(start + i) != token.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(CharSequence text, int pos, int end) {
+        while (pos < end && Character.isWhitespace(text.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static int skipToken(CharSequence text, int pos, int end) {
+        while (pos < end && !Character.isWhitespace(text.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static IllegalArgumentException error(CharSequence text, int start, int end, String problem) {
+        return new IllegalArgumentException(String.format("`%s::parseOrder(...)`: %s in \"%s\"",
+                BackstabbrParser.class.getSimpleName(), problem, text.subSequence(start, end)));
+    }
+
+}
@@ -0,0 +1,97 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Abstract class of static utility functions shared by the benchmark programs (e.g. `PreviewBenchmark`):
+ *      timing, per-thread allocation measurement, and result formatting
+ */
+public abstract class Benchmarks {
+
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+
+    /**
+     * @return Total bytes allocated by the current thread so far, or -1 if the JVM cannot measure it
+     */
+    public static long allocatedBytes() {
+
+        if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported())
+            return sunBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        return -1;
+
+    }
+
+    /**
+     * @param bytes0 An earlier `allocatedBytes()` reading, on the current thread
+     * @return Bytes allocated by the current thread since `bytes0`, or -1 if the JVM cannot measure it
+     *      (checked on `bytes0`: two -1 readings would otherwise difference to a plausible-looking 0)
+     */
+    public static long allocatedSince(long bytes0) {
+        return (bytes0 < 0 ? -1 : allocatedBytes() - bytes0);
+    }
+
+    /**
+     * @return `total + bytes`, or -1 if either is unknown (-1) -- so one unmeasured sample makes the whole sum unknown, not too small
+     */
+    public static long addAllocated(long total, long bytes) {
+        return (total < 0 || bytes < 0 ? -1 : total + bytes);
+    }
+
+    /**
+     * @param sortedNanos Sorted latency samples, in ns
+     * @param percentile Percentile to take, in [0, 100]
+     * @return The sample at `percentile`
+     */
+    public static long percentile(long[] sortedNanos, double percentile) {
+
+        if (sortedNanos.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))];
+
+    }
+
+    /**
+     * Prints one line summarizing a set of latency samples (which are sorted in place)
+     * @param name Name of the measurement
+     * @param nanos Latency samples, in ns
+     * @param allocatedBytes Total bytes allocated over all samples (or -1 if unknown)
+     */
+    public static void printLatencies(String name, long[] nanos, long allocatedBytes) {
+
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long sample : nanos)
+            total += sample;
+
+        System.out.printf("%-40s n=%-7d mean=%9.1f us\tp50=%9.1f us\tp99=%9.1f us\talloc=%s/op\n",
+                name, nanos.length,
+                (nanos.length == 0 ? 0.0 : total / 1000.0 / nanos.length),
+                percentile(nanos, 50) / 1000.0, percentile(nanos, 99) / 1000.0,
+                (allocatedBytes < 0 || nanos.length == 0 ? "n/a" : formatBytes(allocatedBytes / nanos.length)));
+
+    }
+
+    /**
+     * @return Growth exponent between two measurements (`log(t2 / t1) / log(n2 / n1)`: ~1 is linear, ~2 quadratic), or "-" without a previous one
+     */
+    public static String growthExponent(double n1, double t1, double n2, double t2) {
+        if (n1 <= 0 || t1 <= 0 || t2 <= 0)
+            return "-";
+        return String.format("%.2f", Math.log(t2 / t1) / Math.log(n2 / n1));
+    }
+
+    public static String formatBytes(long bytes) {
+
+        if (bytes < 1024)
+            return bytes + " B";
+        else if (bytes < 1024 * 1024)
+            return String.format("%.1f KiB", bytes / 1024.0);
+        else
+            return String.format("%.1f MiB", bytes / (1024.0 * 1024.0));
+
+    }
+
+}
@@ -0,0 +1,416 @@
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * `BestResponseSearch` finds the best Orders for one Nation, given a board and the Orders of every other Nation
+ *      (either fixed, or as a list of equally-likely samples)<br><br>
+ *
+ * Every unit of the Nation gets a list of candidate Orders (Hold, legal Moves, and Supports of neighboring units' possible Orders);
+ * each combination of candidates is adjudicated against the other Nations' Orders, scored by a pluggable `Evaluation`, and ranked.<br><br>
+ *
+ * <u>Pruning</u>: combinations where a unit Supports an allied Order that was not given (i.e. a <i>void</i> Support)
+ * are skipped, since they adjudicate exactly like the same combination with a Hold in place of the Support.<br>
+ * <u>Sharing</u>: every combination is judged by a `ClusterJudge` through one `AdjudicationCache`, so combinations that differ
+ * in a single Order only re-resolve the interaction cluster of that Order.<br>
+ * <u>Scaling</u>: if the # of combinations exceeds `maxCombinations`, the search falls back to iterated best response
+ * (improving one unit's Order at a time, until no single change improves the score).<br><br>
+ *
+ * Combinations are evaluated in parallel (common `ForkJoinPool`).
+ */
+public class BestResponseSearch {
+
+
+    public static final int DEFAULT_MAX_COMBINATIONS    = 50_000;
+    public static final int MAX_IMPROVEMENT_PASSES      = 8;
+
+
+    /**
+     * Scores the (adjudicated) outcome of a phase for one Nation: higher is better
+     */
+    @FunctionalInterface
+    public interface Evaluation {
+
+        /**
+         * @param board Board before the phase
+         * @param nation Nation to score for
+         * @param resolved All Orders of the phase, adjudicated
+         * @return Score of the outcome for `nation`
+         */
+        double evaluate(BoardState board, Nation nation, Collection<Order> resolved);
+
+        /**
+         * # of supply centers `nation` would own if the phase ended the year (occupied SCs change hands, others keep their owner)
+         */
+        Evaluation SUPPLY_CENTERS = (board, nation, resolved) -> {
+            Nation[] occupants = occupantsAfter(resolved);
+            int count = 0;
+            for (Province province : Province.values()) {
+                if (!province.supplyCenter || province.parent != null)
+                    continue;
+                Nation occupant = occupants[BoardState.area(province)];
+                if ((occupant != null ? occupant : board.supplyCenterOwnerOf(province)) == nation)
+                    count++;
+            }
+            return count;
+        };
+
+        /**
+         * # of `nation`'s units that are not dislodged
+         */
+        Evaluation UNITS_KEPT = (board, nation, resolved) -> {
+            boolean[] dislodged = dislodgedAfter(resolved);
+            int count = 0;
+            for (Order order : resolved) {
+                if (order.owner == nation && !dislodged[BoardState.area(order.pos0)])
+                    count++;
+            }
+            return count;
+        };
+
+        /**
+         * @param other Evaluation to add
+         * @param weight Weight of `other`
+         * @return An Evaluation scoring `this + weight * other`
+         */
+        default Evaluation plus(Evaluation other, double weight) {
+            return (board, nation, resolved) ->
+                    this.evaluate(board, nation, resolved) + weight * other.evaluate(board, nation, resolved);
+        }
+
+    }
+
+    /**
+     * A scored combination of Orders for the searching Nation
+     */
+    public static final class Candidate {
+
+        public final List<Order>    orders;  // one per unit of the Nation
+        public final double         score;   // mean score over all samples of the other Nations' Orders
+
+        public Candidate(List<Order> orders, double score) {
+            this.orders = orders;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f\t%s", score, orders);
+        }
+
+    }
+
+
+    private final Evaluation        evaluation;
+    private final AdjudicationCache cache;
+    private final int               maxCombinations;
+
+    private final LongAdder         adjudications = new LongAdder();
+
+
+    public BestResponseSearch(Evaluation evaluation) {
+        this(evaluation, new AdjudicationCache(), DEFAULT_MAX_COMBINATIONS);
+    }
+
+    public BestResponseSearch(Evaluation evaluation, AdjudicationCache cache, int maxCombinations) {
+
+        if (maxCombinations <= 0)
+            throw new IllegalArgumentException(String.format("`%s`: maxCombinations must be positive (was %d)",
+                    this.getClass().getSimpleName(), maxCombinations));
+
+        this.evaluation = evaluation;
+        this.cache = cache;
+        this.maxCombinations = maxCombinations;
+
+    }
+
+
+    /**
+     * @return # of (whole-turn) adjudications run by this search so far, incl. those served (partly) from the cache
+     */
+    public long getAdjudications() {
+        return adjudications.sum();
+    }
+
+
+    public List<Candidate> search(BoardState board, Nation nation, Collection<Order> otherOrders, int topK) {
+        return search(board, nation, List.of(otherOrders), topK);
+    }
+
+    /**
+     * Searches for the best Orders for `nation`
+     * @param board Board to search on
+     * @param nation Nation to find Orders for
+     * @param otherOrderSamples Samples of the other Nations' Orders (units without an Order in a sample Hold)
+     * @param topK Max # of Candidates to return
+     * @return The best (at most) `topK` Candidates, best first
+     */
+    public List<Candidate> search(BoardState board, Nation nation, List<? extends Collection<Order>> otherOrderSamples, int topK) {
+
+        if (otherOrderSamples.isEmpty())
+            throw new IllegalArgumentException(String.format("`%s::search(...)`: no samples of the other Nations' Orders",
+                    this.getClass().getSimpleName()));
+
+        List<List<Order>> samples = new ArrayList<>();
+        for (Collection<Order> sample : otherOrderSamples)
+            samples.add(completeOthers(board, nation, sample));
+
+        List<List<Order>> candidates = candidateOrders(board, nation, samples);
+        if (candidates.isEmpty())
+            return List.of(new Candidate(List.of(), evaluateCombination(board, nation, List.of(), samples)));
+
+        long numCombinations = 1;
+        for (List<Order> unitCandidates : candidates)
+            numCombinations = Math.min(Long.MAX_VALUE / 64, numCombinations * unitCandidates.size());
+
+        Collection<Candidate> results = (numCombinations <= maxCombinations ?
+                searchExhaustive(board, nation, candidates, samples, numCombinations) :
+                searchIterated(board, nation, candidates, samples));
+
+        return results.stream()
+                .sorted(Comparator.comparingDouble((Candidate candidate) -> candidate.score).reversed())
+                .limit(topK)
+                .collect(Collectors.toList());
+
+    }
+
+    private List<Candidate> searchExhaustive(BoardState board, Nation nation, List<List<Order>> candidates,
+                                             List<List<Order>> samples, long numCombinations) {
+
+        return LongStream.range(0, numCombinations).parallel()
+                .mapToObj(index -> {
+                    int[] choice = new int[candidates.size()];
+                    for (int i = 0; i < choice.length; i++) {
+                        choice[i] = (int) (index % candidates.get(i).size());
+                        index /= candidates.get(i).size();
+                    }
+                    List<Order> combination = combination(candidates, choice);
+                    if (hasVoidSupport(combination))
+                        return null;
+                    return new Candidate(combination, evaluateCombination(board, nation, combination, samples));
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+    }
+
+    private Collection<Candidate> searchIterated(BoardState board, Nation nation, List<List<Order>> candidates,
+                                                 List<List<Order>> samples) {
+
+        Map<List<Order>, Candidate> evaluated = new LinkedHashMap<>();  // (insertion order --> deterministic ranking of ties)
+
+        int[] choice = new int[candidates.size()];  // all Holds (every candidate List starts with the Hold)
+        List<Order> best = combination(candidates, choice);
+        double bestScore = evaluateCombination(board, nation, best, samples);
+        evaluated.put(best, new Candidate(best, bestScore));
+
+        for (int pass = 0; pass < MAX_IMPROVEMENT_PASSES; pass++) {
+
+            boolean improved = false;
+            for (int unit = 0; unit < candidates.size(); unit++) {
+
+                final int[] base = choice.clone();
+                final int fixedUnit = unit;
+                List<Candidate> alternatives = IntStream.range(0, candidates.get(unit).size()).parallel()
+                        .mapToObj(alternative -> {
+                            int[] choice2 = base.clone();
+                            choice2[fixedUnit] = alternative;
+                            List<Order> combination = combination(candidates, choice2);
+                            if (hasVoidSupport(combination))
+                                return null;
+                            return new Candidate(combination, evaluateCombination(board, nation, combination, samples));
+                        })
+                        .collect(Collectors.toList());
+
+                for (int alternative = 0; alternative < alternatives.size(); alternative++) {
+                    Candidate candidate = alternatives.get(alternative);
+                    if (candidate == null)
+                        continue;
+                    evaluated.putIfAbsent(candidate.orders, candidate);
+                    if (candidate.score > bestScore) {
+                        bestScore = candidate.score;
+                        choice[unit] = alternative;
+                        improved = true;
+                    }
+                }
+
+            }
+
+            if (!improved)
+                break;
+
+        }
+
+        return evaluated.values();
+
+    }
+
+    private double evaluateCombination(BoardState board, Nation nation, List<Order> combination, List<List<Order>> samples) {
+
+        double total = 0;
+        for (List<Order> sample : samples) {
+            List<Order> orders = new ArrayList<>(sample.size() + combination.size());
+            for (Order order : sample)
+                orders.add(new Order(order));
+            for (Order order : combination)
+                orders.add(new Order(order));
+
+            new ClusterJudge(orders, cache).judge();
+            adjudications.increment();
+            total += evaluation.evaluate(board, nation, orders);
+        }
+
+        return total / samples.size();
+
+    }
+
+
+    /**
+     * Generates the candidate Orders of every unit of a Nation: a Hold (always first), every legal Move,
+     * and every valid Support of a neighboring unit's possible Orders (the Nation's own candidate Orders, or the other Nations' given Orders)
+     * @param board Board to search on
+     * @param nation Nation whose units to generate Orders for
+     * @param samples Samples of the other Nations' (complete) Orders
+     * @return A List of candidate Orders per unit of `nation`, in area order
+     */
+    public static List<List<Order>> candidateOrders(BoardState board, Nation nation, List<List<Order>> samples) {
+
+        List<Order> units = new ArrayList<>();
+        for (Order order : board.toOrders()) {
+            if (order.owner == nation)
+                units.add(order);
+        }
+
+        // Possible Orders of every unit on the board: Hold + Moves for our units, the sampled Orders for everyone else
+        List<Order> possibleOrders = new ArrayList<>();
+        List<List<Order>> candidates = new ArrayList<>();
+        for (Order unit : units) {
+            List<Order> unitCandidates = new ArrayList<>();
+            unitCandidates.add(unit);
+            for (Province destination : RandomOrders.legalDestinations(unit))
+                unitCandidates.add(new Order(unit.owner, unit.unitType, unit.pos0, OrderType.MOVE, destination));
+            candidates.add(unitCandidates);
+            possibleOrders.addAll(unitCandidates);
+        }
+        Set<Order> sampledOrders = new LinkedHashSet<>();
+        for (List<Order> sample : samples)
+            sampledOrders.addAll(sample);
+        possibleOrders.addAll(sampledOrders);
+
+        for (int i = 0; i < units.size(); i++) {
+            Order unit = units.get(i);
+            Set<Order> supports = new LinkedHashSet<>();
+            for (Order supported : possibleOrders) {
+                if (Province.equalsIgnoreCoast(supported.pos0, unit.pos0))
+                    continue;
+                if (!unit.pos0.isAdjacentToIgnoreSplitCoast(supported.pos0) &&
+                        (supported.orderType != OrderType.MOVE || !unit.pos0.isAdjacentToIgnoreSplitCoast(supported.pos1)))
+                    continue;
+                Order support = (supported.orderType == OrderType.MOVE ?
+                        new Order(unit.owner, unit.unitType, unit.pos0, OrderType.SUPPORT, supported.pos0, supported.pos1) :
+                        new Order(unit.owner, unit.unitType, unit.pos0, OrderType.SUPPORT, supported.pos0));
+                if (Orders.orderIsValid(support))
+                    supports.add(support);
+            }
+            candidates.get(i).addAll(supports);
+        }
+
+        return candidates;
+
+    }
+
+    private static List<Order> completeOthers(BoardState board, Nation nation, Collection<Order> sample) {
+
+        List<Order> orders = new ArrayList<>();
+        boolean[] ordered = new boolean[Province.values().length];
+        for (Order order : sample) {
+            if (order.owner == nation)
+                throw new IllegalArgumentException(String.format("`BestResponseSearch::search(...)`: sample contains an Order of the searching Nation: %s", order));
+            orders.add(order);
+            ordered[BoardState.area(order.pos0)] = true;
+        }
+        for (Order unit : board.toOrders()) {
+            if (unit.owner != nation && !ordered[BoardState.area(unit.pos0)])
+                orders.add(unit);  // HOLD
+        }
+
+        return orders;
+
+    }
+
+    private static List<Order> combination(List<List<Order>> candidates, int[] choice) {
+
+        List<Order> combination = new ArrayList<>(choice.length);
+        for (int i = 0; i < choice.length; i++)
+            combination.add(candidates.get(i).get(choice[i]));
+        return combination;
+
+    }
+
+    // A Support of our own unit is void unless that unit was given the supported Order
+    private static boolean hasVoidSupport(List<Order> combination) {
+
+        for (Order support : combination) {
+            if (support.orderType != OrderType.SUPPORT)
+                continue;
+            for (Order supported : combination) {
+                if (!Province.equalsIgnoreCoast(supported.pos0, support.pos1))
+                    continue;
+                boolean matches = (support.pos2 == null ?
+                        supported.orderType != OrderType.MOVE :
+                        supported.orderType == OrderType.MOVE && Province.equalsIgnoreCoast(supported.pos1, support.pos2));
+                if (!matches)
+                    return true;
+            }
+        }
+        return false;
+
+    }
+
+
+    /**
+     * @param resolved Adjudicated Orders of a movement phase
+     * @return Whether the unit in each area (by `BoardState.area(...)`) is dislodged
+     */
+    public static boolean[] dislodgedAfter(Collection<Order> resolved) {
+
+        boolean[] movedOut = new boolean[Province.values().length];
+        boolean[] attacked = new boolean[Province.values().length];
+        for (Order order : resolved) {
+            if (order.orderType == OrderType.MOVE && order.verdict) {
+                movedOut[BoardState.area(order.pos0)] = true;
+                attacked[BoardState.area(order.pos1)] = true;
+            }
+        }
+
+        boolean[] dislodged = new boolean[Province.values().length];
+        for (Order order : resolved) {
+            int area = BoardState.area(order.pos0);
+            dislodged[area] = attacked[area] && !movedOut[area];
+        }
+        return dislodged;
+
+    }
+
+    /**
+     * @param resolved Adjudicated Orders of a movement phase
+     * @return The owner of the (non-dislodged) unit in each area (by `BoardState.area(...)`) after the phase, or null if empty
+     */
+    public static Nation[] occupantsAfter(Collection<Order> resolved) {
+
+        boolean[] dislodged = dislodgedAfter(resolved);
+        Nation[] occupants = new Nation[Province.values().length];
+        for (Order order : resolved) {
+            int area = BoardState.area(order.pos0);
+            if (order.orderType == OrderType.MOVE && order.verdict)
+                occupants[BoardState.area(order.pos1)] = order.owner;
+            else if (!dislodged[area] && occupants[area] == null)
+                occupants[area] = order.owner;
+        }
+        return occupants;
+
+    }
+
+}
@@ -0,0 +1,387 @@
+import java.util.*;
+
+/**
+ * The `BoardState` class is an <i>immutable</i> snapshot of a Diplomacy board: unit placement, supply center ownership, year & season.<br><br>
+ *
+ * Units are packed into single ints, and stored in fixed-size 'chunks' of an array indexed by the <u>area</u> of the unit
+ *      (i.e. `Province.ordinal()` of the unit's Province, or of its parent for split coasts -- Spa, Spa/nc, & Spa/sc are all "one area").<br>
+ * Supply center ownership is stored in its own array, also indexed by `Province.ordinal()`.<br><br>
+ *
+ * A new state is derived from an old one with `BoardState::edit()` --> `Editor::build()`.
+ * The Editor copies only the chunks it touches ("copy-on-write"); every untouched chunk, and the SC ownership array (unless it changed),
+ * is <i>shared</i> with the previous state. A full phase of history therefore costs a handful of small arrays, not a whole board.<br><br>
+ *
+ * Each state also carries its 64-bit Zobrist hash (units, SC ownership & season -- see `Zobrist`), which the Editor updates with one XOR per change,
+ * and per-Nation unit & supply center counts, which the Editor keeps up to date the same way (so counting is O(1)).
+ */
+public final class BoardState {
+
+
+    public static final int CHUNK_SIZE = 16;  // # of areas per chunk
+
+    private static final Province[] PROVINCES   = Province.values();
+    private static final Nation[]   NATIONS     = Nation.values();
+    private static final UnitType[] UNIT_TYPES  = UnitType.values();
+    private static final int        NUM_CHUNKS  = (PROVINCES.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+    // Packed unit layout: [bit 0: occupied] [bits 1-16: location ordinal] [bit 17: UnitType ordinal] [bits 18-21: owner ordinal]
+    // (the location is as wide as a Province in `Orders.pack(...)`, so the two layouts cannot drift apart)
+    private static final int EMPTY          = 0;
+    private static final int LOCATION_SHIFT = 1;
+    private static final int LOCATION_MASK  = (1 << Orders.PACKED_PROVINCE_BITS) - 1;
+    private static final int TYPE_SHIFT     = LOCATION_SHIFT + Orders.PACKED_PROVINCE_BITS;
+    private static final int TYPE_MASK      = 0x1;
+    private static final int OWNER_SHIFT    = TYPE_SHIFT + 1;
+    private static final int OWNER_MASK     = 0xF;
+
+    static {
+        if (PROVINCES.length > LOCATION_MASK + 1 || UNIT_TYPES.length > TYPE_MASK + 1 || NATIONS.length > OWNER_MASK + 1)
+            throw new IllegalStateException("`BoardState`: enums outgrew the packed unit layout");
+    }
+
+
+    private final int[][]   units;     // [chunk][area % CHUNK_SIZE] -> packed unit (or `EMPTY`)
+    private final Nation[]  scOwners;  // [Province.ordinal()] -> owner of the supply center (or null)
+
+    private final long      hash;      // Zobrist hash (does not include `year`)
+    private final int[]     unitCounts;  // [Nation.ordinal()] -> # of units
+    private final int[]     scCounts;    // [Nation.ordinal()] -> # of supply centers owned
+
+    public  final int       year;
+    public  final Season    season;
+
+
+    private BoardState(int[][] units, Nation[] scOwners, long hash, int[] unitCounts, int[] scCounts, int year, Season season) {
+        this.units = units;
+        this.scOwners = scOwners;
+        this.hash = hash;
+        this.unitCounts = unitCounts;
+        this.scCounts = scCounts;
+        this.year = year;
+        this.season = season;
+    }
+
+
+    /**
+     * Creates an empty board (no units) where every supply center is owned by its home Nation, as defined in `Province`
+     * @param year Game year
+     * @param season Game season
+     * @return A new, empty `BoardState`
+     */
+    public static BoardState empty(int year, Season season) {
+
+        int[][] units = new int[NUM_CHUNKS][CHUNK_SIZE];
+        Nation[] scOwners = new Nation[PROVINCES.length];
+        int[] scCounts = new int[NATIONS.length];
+        long hash = Zobrist.seasonKey(season);
+        for (Province province : PROVINCES) {
+            if (province.supplyCenter && province.parent == null) {
+                scOwners[province.ordinal()] = province.owner;
+                hash ^= Zobrist.supplyCenterKey(province.ordinal(), province.owner);
+                if (province.owner != null)
+                    scCounts[province.owner.ordinal()]++;
+            }
+        }
+
+        return new BoardState(units, scOwners, hash, new int[NATIONS.length], scCounts, year, season);
+
+    }
+
+    /**
+     * Creates a board with a unit at the origin (`pos0`) of every Order in a given Collection
+     * @param orders Collection of Orders whose units to place
+     * @param year Game year
+     * @param season Game season
+     * @return A new `BoardState` holding the units of `orders`
+     */
+    public static BoardState fromOrders(Collection<Order> orders, int year, Season season) {
+
+        Editor editor = empty(year, season).edit();
+        for (Order order : orders) {
+            if (order.pos0 != null)
+                editor.placeUnit(order.pos0, order.owner, order.unitType);
+        }
+
+        return editor.build();
+
+    }
+
+    public static BoardState fromOrders(Collection<Order> orders) {
+        return fromOrders(orders, Constants.STARTING_YEAR, Season.SPRING);
+    }
+
+
+    /**
+     * Returns the 'area' index of a Province: its own ordinal, or the ordinal of its parent (for split coasts)
+     * @param province Province to index
+     * @return Area index of `province`
+     */
+    static int area(Province province) {
+        return (province.parent != null ? province.parent : province).ordinal();
+    }
+
+    private int packedAt(Province province) {
+        int area = area(province);
+        return units[area / CHUNK_SIZE][area % CHUNK_SIZE];
+    }
+
+    private static long unitKey(int packed) {
+        return (packed == EMPTY ? 0L : Zobrist.unitKey(
+                (packed >>> LOCATION_SHIFT) & LOCATION_MASK, (packed >>> OWNER_SHIFT) & OWNER_MASK, (packed >>> TYPE_SHIFT) & TYPE_MASK));
+    }
+
+
+    /**
+     * @return 64-bit Zobrist hash of this position: units, SC ownership & season (but not the year)
+     */
+    public long zobristHash() {
+        return hash;
+    }
+
+
+    public boolean hasUnitAt(Province province) {
+        return packedAt(province) != EMPTY;
+    }
+
+    /**
+     * Returns the exact location of the unit in the same area as a given Province (e.g. Spa/nc for Spa), or null if the area is empty
+     * @param province Province to search
+     * @return Exact location of the unit in `province`'s area, or null
+     */
+    public Province unitLocationAt(Province province) {
+        int packed = packedAt(province);
+        return (packed == EMPTY ? null : PROVINCES[(packed >>> LOCATION_SHIFT) & LOCATION_MASK]);
+    }
+
+    public UnitType unitTypeAt(Province province) {
+        int packed = packedAt(province);
+        return (packed == EMPTY ? null : UNIT_TYPES[(packed >>> TYPE_SHIFT) & TYPE_MASK]);
+    }
+
+    public Nation unitOwnerAt(Province province) {
+        int packed = packedAt(province);
+        return (packed == EMPTY ? null : NATIONS[(packed >>> OWNER_SHIFT) & OWNER_MASK]);
+    }
+
+    public Nation supplyCenterOwnerOf(Province province) {
+        return scOwners[area(province)];
+    }
+
+
+    public int countUnits(Nation nation) {
+        return unitCounts[nation.ordinal()];
+    }
+
+    public int countSupplyCenters(Nation nation) {
+        return scCounts[nation.ordinal()];
+    }
+
+    /**
+     * Generates a HOLD Order for every unit on the board, in area order
+     * @return A new List of HOLD Orders, one per unit
+     */
+    public List<Order> toOrders() {
+
+        List<Order> orders = new ArrayList<>();
+        for (int area = 0; area < PROVINCES.length; area++) {
+            int packed = units[area / CHUNK_SIZE][area % CHUNK_SIZE];
+            if (packed == EMPTY)
+                continue;
+            orders.add(new Order(
+                    NATIONS[(packed >>> OWNER_SHIFT) & OWNER_MASK],
+                    UNIT_TYPES[(packed >>> TYPE_SHIFT) & TYPE_MASK],
+                    PROVINCES[(packed >>> LOCATION_SHIFT) & LOCATION_MASK],
+                    OrderType.HOLD));
+        }
+
+        return orders;
+
+    }
+
+
+    /**
+     * Begins a new set of changes on top of this (unaltered) state
+     * @return A new `Editor` based on this state
+     */
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+
+    /**
+     * Accumulates changes to a `BoardState`, and produces a new state via `build()`.<br><br>
+     *
+     * Chunks are copied at most once per Editor, on first write; the source state is never mutated.
+     */
+    public static final class Editor {
+
+        private final   int[][]     units;
+        private final   boolean[]   copiedChunks;
+        private         Nation[]    scOwners;
+        private         boolean     copiedScOwners = false;
+        private         long        hash;
+        private final   int[]       unitCounts;
+        private final   int[]       scCounts;
+        private         int         year;
+        private         Season      season;
+
+        private Editor(BoardState source) {
+            this.units = source.units.clone();  // shallow -- the chunks themselves are still shared
+            this.copiedChunks = new boolean[NUM_CHUNKS];
+            this.scOwners = source.scOwners;
+            this.hash = source.hash;
+            this.unitCounts = source.unitCounts.clone();
+            this.scCounts = source.scCounts.clone();
+            this.year = source.year;
+            this.season = source.season;
+        }
+
+        private int[] writableChunk(int area) {
+            int chunk = area / CHUNK_SIZE;
+            if (!copiedChunks[chunk]) {
+                units[chunk] = units[chunk].clone();
+                copiedChunks[chunk] = true;
+            }
+            return units[chunk];
+        }
+
+        public Editor placeUnit(Province location, Nation owner, UnitType unitType) {
+            int area = area(location);
+            int[] chunk = writableChunk(area);
+            int packed = 1 | (location.ordinal() << LOCATION_SHIFT) |
+                    (unitType.ordinal() << TYPE_SHIFT) | (owner.ordinal() << OWNER_SHIFT);
+            hash ^= unitKey(chunk[area % CHUNK_SIZE]) ^ unitKey(packed);
+            uncount(chunk[area % CHUNK_SIZE]);
+            unitCounts[owner.ordinal()]++;
+            chunk[area % CHUNK_SIZE] = packed;
+            return this;
+        }
+
+        public Editor removeUnit(Province province) {
+            int area = area(province);
+            int packed = units[area / CHUNK_SIZE][area % CHUNK_SIZE];
+            if (packed != EMPTY) {
+                hash ^= unitKey(packed);
+                uncount(packed);
+                writableChunk(area)[area % CHUNK_SIZE] = EMPTY;
+            }
+            return this;
+        }
+
+        /**
+         * Moves the unit in the area of `from` to `to`, replacing any unit already in `to`'s area
+         * @param from Origin of the unit
+         * @param to Destination of the unit (incl. coast, if any)
+         * @return This Editor
+         */
+        public Editor moveUnit(Province from, Province to) {
+            int fromArea = area(from);
+            int packed = units[fromArea / CHUNK_SIZE][fromArea % CHUNK_SIZE];
+            if (packed == EMPTY)
+                throw new IllegalStateException(String.format("`%s::moveUnit(...)`: no unit to move at %s", "BoardState.Editor", from));
+            removeUnit(from);
+            return placeUnit(to,
+                    NATIONS[(packed >>> OWNER_SHIFT) & OWNER_MASK],
+                    UNIT_TYPES[(packed >>> TYPE_SHIFT) & TYPE_MASK]);
+        }
+
+        /**
+         * Removes every unit from the board; SC ownership is left untouched
+         * @return This Editor
+         */
+        public Editor clearUnits() {
+            for (int chunk = 0; chunk < NUM_CHUNKS; chunk++) {
+                for (int packed : units[chunk]) {
+                    hash ^= unitKey(packed);
+                    uncount(packed);
+                }
+                units[chunk] = new int[CHUNK_SIZE];
+                copiedChunks[chunk] = true;
+            }
+            return this;
+        }
+
+        /**
+         * Hands every occupied supply center to the owner of the unit occupying it (i.e. the end-of-year ownership update)
+         * @return This Editor
+         */
+        public Editor captureSupplyCenters() {
+            for (Province province : PROVINCES) {
+                if (!province.supplyCenter || province.parent != null)
+                    continue;
+                int area = province.ordinal();
+                int packed = units[area / CHUNK_SIZE][area % CHUNK_SIZE];
+                if (packed != EMPTY)
+                    setSupplyCenterOwner(province, NATIONS[(packed >>> OWNER_SHIFT) & OWNER_MASK]);
+            }
+            return this;
+        }
+
+        public Editor setSupplyCenterOwner(Province province, Nation owner) {
+            int area = area(province);
+            if (scOwners[area] == owner)
+                return this;
+            if (!copiedScOwners) {
+                scOwners = scOwners.clone();
+                copiedScOwners = true;
+            }
+            hash ^= Zobrist.supplyCenterKey(area, scOwners[area]) ^ Zobrist.supplyCenterKey(area, owner);
+            if (scOwners[area] != null)
+                scCounts[scOwners[area].ordinal()]--;
+            if (owner != null)
+                scCounts[owner.ordinal()]++;
+            scOwners[area] = owner;
+            return this;
+        }
+
+        private void uncount(int packed) {
+            if (packed != EMPTY)
+                unitCounts[(packed >>> OWNER_SHIFT) & OWNER_MASK]--;
+        }
+
+        public Editor setPhase(int year, Season season) {
+            hash ^= Zobrist.seasonKey(this.season) ^ Zobrist.seasonKey(season);
+            this.year = year;
+            this.season = season;
+            return this;
+        }
+
+        public BoardState build() {
+            // The new state now shares every chunk with this Editor, so any further writes must copy again
+            Arrays.fill(copiedChunks, false);
+            copiedScOwners = false;
+            return new BoardState(units.clone(), scOwners, hash, unitCounts.clone(), scCounts.clone(), year, season);
+        }
+
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+
+        if (this == other)
+            return true;
+        if (!(other instanceof BoardState state2))
+            return false;
+
+        return this.hash == state2.hash && this.year == state2.year && this.season == state2.season &&
+                Arrays.deepEquals(this.units, state2.units) && Arrays.equals(this.scOwners, state2.scOwners);
+
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash) * 31 + year;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder output = new StringBuilder(String.format("%s %d:", season, year));
+        for (Order order : toOrders())
+            output.append("\n\t").append(order.unitToString());
+        return output.toString();
+
+    }
+
+}
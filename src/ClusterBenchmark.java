@@ -0,0 +1,93 @@
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Benchmarks single-turn adjudication latency on full-board positions (34 units, random legal Orders):<br>
+ *      ~ `Judge` over the whole Order set<br>
+ *      ~ `ClusterJudge`, one interaction cluster at a time<br>
+ *      ~ `ParallelClusterJudge`, independent clusters in parallel<br><br>
+ *
+ * Every result is also checked against plain `Judge`; any mismatch is reported.
+ */
+public class ClusterBenchmark {
+
+
+    public static final long SEED           = 2501L;
+    public static final int  NUM_POSITIONS  = 5000;
+    public static final int  WARMUP_ROUNDS  = 2;
+
+
+    public static void main(String[] args) {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        List<List<Order>> positions = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(SEED);
+        long numClusters = 0;
+        for (int i = 0; i < NUM_POSITIONS; i++) {
+            List<Order> orders = RandomOrders.generate(RandomOrders.fullBoard(random), random);
+            positions.add(orders);
+            numClusters += OrderClusters.partition(orders).size();
+        }
+
+        List<List<Order>> expected = new ArrayList<>();
+        for (List<Order> orders : positions) {
+            List<Order> resolved = Orders.deepCopy(orders);
+            new Judge(resolved).judge();
+            expected.add(resolved);
+        }
+
+        System.out.printf("SINGLE-TURN LATENCY (%d positions, %d units/position, %.2f clusters/position, pool size %d):\n\n",
+                NUM_POSITIONS, 34, (double) numClusters / NUM_POSITIONS, ParallelClusterJudge.POOL_SIZE);
+
+        run("`Judge`", Judge::new, positions, expected);
+        run("`ClusterJudge`", ClusterJudge::new, positions, expected);
+        run("`ParallelClusterJudge`", ParallelClusterJudge::new, positions, expected);
+
+        System.out.println();
+        Constants.printTimestamp();
+
+    }
+
+    private static void run(String name, Function<Collection<Order>, Judge> judgeFactory,
+                            List<List<Order>> positions, List<List<Order>> expected) {
+
+        long[] nanos = new long[positions.size()];
+        long bytes = 0;
+        int mismatches = 0;
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+
+            bytes = 0;
+            mismatches = 0;
+            for (int i = 0; i < positions.size(); i++) {
+
+                List<Order> orders = Orders.deepCopy(positions.get(i));
+                Judge judge = judgeFactory.apply(orders);
+                long bytes0 = Benchmarks.allocatedBytes();
+                long start = System.nanoTime();
+                judge.judge();
+                nanos[i] = System.nanoTime() - start;
+                bytes = Benchmarks.addAllocated(bytes, Benchmarks.allocatedSince(bytes0));
+
+                List<Order> expectedOrders = expected.get(i);
+                for (int j = 0; j < orders.size(); j++) {
+                    if (orders.get(j).verdict != expectedOrders.get(j).verdict) {
+                        mismatches++;
+                        break;
+                    }
+                }
+
+            }
+
+        }
+
+        // (allocations on pool threads are not counted)
+        Benchmarks.printLatencies(name, nanos, bytes);
+        if (mismatches > 0)
+            System.out.println(Constants.ANSI_RED + "\tMISMATCHED POSITIONS:\t[" + mismatches + "/" + positions.size() + "]" + Constants.ANSI_RESET);
+
+    }
+
+}
@@ -0,0 +1,99 @@
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * `ClusterJudge` is a subclass of `Judge` that splits its Orders into independent interaction clusters (see `OrderClusters`),
+ * adjudicates each cluster separately, and merges the verdicts back into `orders`<br><br>
+ *
+ * Each cluster is judged by its own (sub-)Judge from `judgeFactory` -- e.g. `Judge::new`, or `Referee::new` for paradox handling.<br>
+ * With an `AdjudicationCache`, clusters are also cached <i>independently</i>: a change in one theatre of the board
+ * only misses on that theatre's cluster, and every other cluster is still served from the cache.<br><br>
+ *
+ * Like `Judge::judge()`, results are written into the Order objects of `orders` in place.<br>
+ * Verdicts match a plain `Judge` on all of `orders`, except where it leaves a cycle unresolved (its verdicts there are guesses,
+ * which depend on the rest of the List -- see `EquivalenceChecker`).
+ */
+public class ClusterJudge extends Judge {
+
+
+    protected final Function<Collection<Order>, Judge>  judgeFactory;
+    protected final AdjudicationCache                   cache;  // nullable
+
+
+    public ClusterJudge() {
+        this(new ArrayList<>());
+    }
+
+    public ClusterJudge(Collection<Order> orders) {
+        this(orders, Judge::new, null);
+    }
+
+    public ClusterJudge(Collection<Order> orders, AdjudicationCache cache) {
+        this(orders, Judge::new, cache);
+    }
+
+    public ClusterJudge(Collection<Order> orders, Function<Collection<Order>, Judge> judgeFactory, AdjudicationCache cache) {
+        super(orders);
+        this.judgeFactory = judgeFactory;
+        this.cache = cache;
+    }
+
+
+    @Override
+    protected long variantKey() {
+        // results are those of the sub-Judges
+        return judgeFactory.apply(new ArrayList<>()).variantKey();
+    }
+
+
+    /**
+     * Definitively resolves `orders`, one interaction cluster at a time
+     *
+     * @postcondition Every order in `orders` is definitively resolved and has a verdict
+     */
+    @Override
+    public void judge() {
+
+        for (List<Order> cluster : OrderClusters.partition(this.orders))
+            judgeCluster(cluster);
+
+    }
+
+    /**
+     * Judges one cluster with a new sub-Judge (through the cache, if any), and merges its results into the cluster's Orders
+     * @param cluster Orders of one interaction cluster
+     */
+    protected void judgeCluster(List<Order> cluster) {
+
+        Judge judge = judgeFactory.apply(new ArrayList<>(cluster));
+        if (cache != null)
+            cache.judge(judge);
+        else
+            judge.judge();
+
+        merge(cluster, judge.getOrders());
+
+    }
+
+    /**
+     * Copies a sub-Judge's results into the original Orders of a cluster, for sub-Judges that resolve clones (e.g. `Referee`)
+     * @param cluster Original Orders of the cluster
+     * @param resolution Resolved Orders, one per unit in `cluster`
+     */
+    protected static void merge(List<Order> cluster, Collection<Order> resolution) {
+
+        Map<Province, Order> resolvedByArea = new HashMap<>();
+        for (Order resolved : resolution) {
+            if (resolved.pos0 != null)
+                resolvedByArea.put(resolved.pos0.parent != null ? resolved.pos0.parent : resolved.pos0, resolved);
+        }
+
+        for (Order order : cluster) {
+            Order resolved = resolvedByArea.get(order.pos0.parent != null ? order.pos0.parent : order.pos0);
+            if (resolved != null && resolved != order)
+                order.assign(resolved);
+        }
+
+    }
+
+}
@@ -1,10 +1,9 @@
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -77,65 +76,79 @@ public class DATCFileParser extends DATCParser implements FileTestCaseParser {
 
             TestCase testCase = super.parse(contents);
             testCase.setName(path.substring(0, (path.length() - TESTGAMES_FILE_EXT.length()) ));
-            testCase.setExpectedFields(this.parseSolution(solutionContents));
+            testCase.setExpectedFields(parseSolution(solutionContents));
             return testCase;
 
         }
 
     }
 
-    private boolean[] parseSolution(String solution) {
+    /**
+     * @param solution Solution file contents: one verdict ("true" / "false") per non-blank line
+     * @return The verdicts, in order (anything but "true", ignoring case, is false -- as with `Boolean.parseBoolean(...)`)
+     */
+    public static boolean[] parseSolution(CharSequence solution) {
 
         // Current version of this method works for single-boolean (verdict) only
 
-        String[] sourceLines = solution.lines().toArray(String[]::new);
-        int numGarbageLines = 0;
-        for (String line : sourceLines) {
-            if (line.isBlank())
-                numGarbageLines++;
-        }
-
-        boolean[] verdicts = new boolean[sourceLines.length - numGarbageLines];
-        int encounteredGarbageLines = 0;
-        for (int i = 0; i < sourceLines.length; i++) {
-            String line = sourceLines[i];
-            if (line.isBlank()) {
-                encounteredGarbageLines++;
+        boolean[] verdicts = new boolean[16];
+        int numVerdicts = 0;
+        int length = solution.length();
+        for (int lineStart = 0; lineStart < length; ) {
+
+            int lineEnd = lineStart;
+            while (lineEnd < length && solution.charAt(lineEnd) != '\n')
+                lineEnd++;
+            int start = lineStart, end = lineEnd;
+            while (start < end && Character.isWhitespace(solution.charAt(start)))
+                start++;
+            while (end > start && Character.isWhitespace(solution.charAt(end - 1)))
+                end--;
+            lineStart = lineEnd + 1;
+
+            if (start == end)  // Blank line
                 continue;
-            }
-            // Warning: `Boolean.parseBoolean()` may return null (but will not throw an exception)
-            verdicts[i - encounteredGarbageLines] = Boolean.parseBoolean(line.strip());
+            if (numVerdicts == verdicts.length)
+                verdicts = Arrays.copyOf(verdicts, 2 * numVerdicts);
+            verdicts[numVerdicts++] = (end - start == 4 &&
+                    Character.toLowerCase(solution.charAt(start)) == 't' && Character.toLowerCase(solution.charAt(start + 1)) == 'r' &&
+                    Character.toLowerCase(solution.charAt(start + 2)) == 'u' && Character.toLowerCase(solution.charAt(start + 3)) == 'e');
+
         }
 
-        return verdicts;
+        return Arrays.copyOf(verdicts, numVerdicts);
 
     }
 
+    /**
+     * Parses every test case in `dirPath` (with its solution from `solutionsDirPath`, if any) concurrently -- see `TestCaseLoader`
+     * @return A new Collection of TestCases, in file-name order, or null if the directory cannot be read
+     */
     public Collection<TestCase> parseManyFiles() {
 
         if (this.dirPath.isBlank())
             return null;
 
-        Path fullPath;
+        Path fullPath, solutionsFullPath;
         try {
             fullPath = Paths.get(this.dirPath);
+            solutionsFullPath = (this.solutionsDirPath.isBlank() ? null : Paths.get(this.solutionsDirPath));
         } catch (InvalidPathException ex) {
             //ex.printStackTrace();
             System.err.printf("`%s`: Tried to read test cases from %s, file(s) not found\n", "DATCFileParser.java", this.dirPath);
             return null;
         }
 
-        File testCasesDir = new File(fullPath.toUri());
-        File[] testCaseFiles = testCasesDir.listFiles();
-
-        if (testCaseFiles == null)
+        long start = System.nanoTime();
+        List<TestCase> testCases;
+        try {
+            testCases = TestCaseLoader.load(fullPath, solutionsFullPath);
+        } catch (IOException ex) {
+            ex.printStackTrace();
             return null;
-
-        List<TestCase> testCases = new ArrayList<>();
-        for (File testCaseFile : testCaseFiles) {
-            System.out.println("Reading from...\t\t["+testCaseFile.getPath()+"]");
-            testCases.add(this.parse(testCaseFile.getName()));
         }
+        System.out.printf("Read %d test cases from...\t[%s] (%.1f ms)\n", testCases.size(), fullPath,
+                (System.nanoTime() - start) / 1e6);
 
         return testCases;
 
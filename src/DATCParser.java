@@ -1,121 +1,184 @@
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Parses Orders of the format found at the
- * <a href="https://webdiplomacy.net/doc/DATC_v3_0.html">DATC page</a> hosted on WebDip
+ * <a href="https://webdiplomacy.net/doc/DATC_v3_0.html">DATC page</a> hosted on WebDip<br><br>
+ *
+ * Parsing is a single pass over the text (any `CharSequence`, e.g. a `CharBuffer` over a mapped file): lines & tokens are index ranges,
+ * and Province names are matched in place by `ProvinceTrie.FULL_NAMES` -- no intermediate Strings are made, except for error messages.
  */
 public class DATCParser implements TestCaseParser {
 
     public static final String TC_PREFIX = DATCParser.class.getName();
 
+    private static final Nation[] NATIONS = Nation.values();
+
     protected int TC_ID = 1;
 
 
     public TestCase parse(String source) {
+        return new TestCase(String.format("%s_%04d", TC_PREFIX, this.TC_ID++), parseOrders(source));
+    }
+
+    /**
+     * @param text Lines of Orders, each group headed by a Nation line (e.g. "Austria:")
+     * @return The Orders in `text`, in order
+     * @throws IllegalArgumentException If a line is malformed
+     */
+    public static List<Order> parseOrders(CharSequence text) {
 
         List<Order> orders = new ArrayList<>();
 
-        String[] sourceLines = source.lines().toArray(String[]::new);
         Nation nation = null;
-        for (String line : sourceLines) {
-
-            if (line.isBlank())  // Blank line
+        int length = text.length();
+        for (int lineStart = 0; lineStart < length; ) {
+
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n')
+                lineEnd++;
+            int next = lineEnd + 1;
+
+            // Strip
+            int start = skipWhitespace(text, lineStart, lineEnd);
+            int end = lineEnd;
+            while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+                end--;
+
+            if (start == end) {  // Blank line
+                lineStart = next;
                 continue;
+            }
+
+            int colon = indexOf(text, ':', start, end);
+            if (colon >= 0)  // Line with a country name + colon char :: CHANGE NATION
+                nation = parseNation(text, start, colon);
+            else  // Line with an elongated order descriptor :: PARSE ORDER
+                orders.add(parseOrder(text, start, end, nation));
 
-            line = line.strip();
-
-            if (line.contains(":"))  // Line with a country name + colon char :: CHANGE NATION
-                nation = Nation.valueOf(line.split(":")[0].toUpperCase());
-            else { // Line with an elongated order descriptor :: PARSE ORDER
-
-                String[] descriptorParts = line.split(" ");
-
-                // Parse UNIT TYPE
-                UnitType unitType = UnitType.valueOfMarker(descriptorParts[0].charAt(0));
-
-                // Parse ORIGIN (pos0)
-                Province origin;
-                Map<String, Province> namesToAbbrsMap = Province.populateAliasesMap();
-                String originStr;
-                byte extraIndex = 0;
-                if (namesToAbbrsMap.containsKey(descriptorParts[1]))  // e.g. "Clyde"
-                    originStr = descriptorParts[1];
-                else if (namesToAbbrsMap.containsKey(descriptorParts[1]+" "+descriptorParts[2])) {  // e.g. "Mid-Atlantic Ocean", "St Petersburg(nc)"
-                    originStr = descriptorParts[1] + " " + descriptorParts[2];
-                    extraIndex++;
-                } else {  // e.g. "North Atlantic Ocean"
-                    originStr = String.format("%s %s %s", descriptorParts[1], descriptorParts[2], descriptorParts[3]);
-                    extraIndex += 2;
-                }
-                origin = Province.valueOf(namesToAbbrsMap.get(originStr).name());
-
-                // Parse ORDER TYPE
-                OrderType orderType;
-                String orderTypeStr = descriptorParts[2+extraIndex];
-                switch (orderTypeStr.charAt(0)) {
-                    case '-' ->
-                        orderType = OrderType.MOVE;
-                    case 'S' ->
-                        orderType = OrderType.SUPPORT;
-                    case 'H' ->
-                        orderType = OrderType.HOLD;
-                    case 'C' ->
-                        orderType = OrderType.CONVOY;
-                    default ->
-                        orderType = null;
-                }
-
-                // Parse pos1 and pos2
-                Province pos1, pos2;
-                if (orderType == OrderType.SUPPORT || orderType == OrderType.CONVOY) {
-                    // Set pos1 (non-null), and pos2 (could be null)
-                    boolean containsMove = line.split(orderType.name().substring(1).toLowerCase())[1].contains(" - ");
-                    StringBuilder pos1Str = new StringBuilder();
-                    if (!containsMove) {  // SUPPORT TO HOLD
-                        for (int i = 4+extraIndex; i < descriptorParts.length; i++) {
-                            pos1Str.append(descriptorParts[i]);
-                            if (i != descriptorParts.length-1)
-                                pos1Str.append(" ");
-                        }
-                        pos1 = Province.valueOf(namesToAbbrsMap.get(pos1Str.toString()).name());
-                        pos2 = null;
-                    } else {  // CONVOY / SUPPORT TO MOVE
-                        int i = 4+extraIndex;
-                        while (descriptorParts[i].charAt(0) != '-')
-                            pos1Str.append(descriptorParts[i++]).append(" ");
-                        StringBuilder pos2Str = new StringBuilder();
-                        for (i = i+1; i < descriptorParts.length; i++) {
-                            pos2Str.append(descriptorParts[i]);
-                            if (i != descriptorParts.length-1)
-                                pos2Str.append(" ");
-                        }
-                        pos1 = Province.valueOf(namesToAbbrsMap.get(pos1Str.toString().strip()).name());
-                        pos2 = Province.valueOf(namesToAbbrsMap.get(pos2Str.toString().strip()).name());
-                    }
-                } else if (orderType == OrderType.MOVE) {
-                    StringBuilder pos1Str = new StringBuilder();
-                    for (int i = 3+extraIndex; i < descriptorParts.length; i++) {
-                        pos1Str.append(descriptorParts[i]);
-                        if (i != descriptorParts.length-1)
-                            pos1Str.append(" ");
-                    }
-                    pos1 = Province.valueOf(namesToAbbrsMap.get(pos1Str.toString()).name());
-                    pos2 = null;
-                } else /*if (orderType == OrderType.HOLD)*/ {
-                    pos1 = null;
-                    pos2 = null;
-                }
-
-                orders.add(new Order(nation, unitType, origin, orderType, pos1, pos2));
+            lineStart = next;
+
+        }
 
+        return orders;
+
+    }
+
+    /**
+     * Parses one Order, e.g. "A Albania - Greece", "F Ionian Sea Hold", "A Serbia Supports A Albania - Greece",
+     * "F North Sea Convoys A London - Norway"
+     * @param text Text containing the Order
+     * @param start Index of the Order's first character
+     * @param end Index past the Order's last character
+     * @param nation Owner of the unit
+     * @return A new Order
+     * @throws IllegalArgumentException If the Order is malformed
+     */
+    public static Order parseOrder(CharSequence text, int start, int end, Nation nation) {
+
+        // Parse UNIT TYPE
+        UnitType unitType = UnitType.valueOfMarker(text.charAt(start));
+        if (unitType == null)
+            throw error(text, start, end, "unknown unit type");
+        int pos = skipWhitespace(text, skipToken(text, start, end), end);
+
+        // Parse ORIGIN (pos0)
+        long origin = matchProvince(text, pos, end);
+        pos = skipWhitespace(text, ProvinceTrie.end(origin), end);
+        if (pos == end)
+            throw error(text, start, end, "missing order type");
+
+        // Parse ORDER TYPE
+        OrderType orderType;
+        switch (text.charAt(pos)) {
+            case '-' ->
+                orderType = OrderType.MOVE;
+            case 'S' ->
+                orderType = OrderType.SUPPORT;
+            case 'H' ->
+                orderType = OrderType.HOLD;
+            case 'C' ->
+                orderType = OrderType.CONVOY;
+            default ->
+                throw error(text, start, end, "unknown order type");
+        }
+        pos = skipWhitespace(text, skipToken(text, pos, end), end);
+
+        // Parse pos1 and pos2
+        Province pos1 = null, pos2 = null;
+        if (orderType == OrderType.SUPPORT || orderType == OrderType.CONVOY) {
+            pos = skipWhitespace(text, skipToken(text, pos, end), end);  // (unit type of the supported / convoyed unit)
+            long match = matchProvince(text, pos, end);
+            pos1 = ProvinceTrie.province(match);
+            pos = skipWhitespace(text, ProvinceTrie.end(match), end);
+            if (pos < end && text.charAt(pos) == '-') {  // CONVOY / SUPPORT TO MOVE (else SUPPORT TO HOLD)
+                pos = skipWhitespace(text, skipToken(text, pos, end), end);
+                match = matchProvince(text, pos, end);
+                pos2 = ProvinceTrie.province(match);
+                pos = ProvinceTrie.end(match);
             }
+        } else if (orderType == OrderType.MOVE) {
+            long match = matchProvince(text, pos, end);
+            pos1 = ProvinceTrie.province(match);
+            pos = ProvinceTrie.end(match);
+        }
+
+        if (skipWhitespace(text, pos, end) != end)
+            throw error(text, start, end, "unexpected trailing text");
+
+        return new Order(nation, unitType, ProvinceTrie.province(origin), orderType, pos1, pos2);
 
+    }
+
+
+    private static Nation parseNation(CharSequence text, int start, int end) {
+
+        while (end > start && Character.isWhitespace(text.charAt(end - 1)))
+            end--;
+        for (Nation nation : NATIONS) {
+            String name = nation.name();
+            if (name.length() != end - start)
+                continue;
+            int i = 0;
+            while (i < name.length() && Character.toUpperCase(text.charAt(start + i)) == name.charAt(i))
+                i++;
+            if (i == name.length())
+                return nation;
         }
+        throw error(text, start, end, "unknown nation");
+
+    }
 
-        return new TestCase(String.format("%s_%04d", TC_PREFIX, this.TC_ID++), orders);
+    private static long matchProvince(CharSequence text, int start, int end) {
+        long match = ProvinceTrie.FULL_NAMES.match(text, start, end);
+        if (match == ProvinceTrie.NO_MATCH)
+            throw error(text, start, end, "unknown province");
+        return match;
+    }
+
+    private static int skipWhitespace(CharSequence text, int pos, int end) {
+        while (pos < end && Character.isWhitespace(text.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static int skipToken(CharSequence text, int pos, int end) {
+        while (pos < end && !Character.isWhitespace(text.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static int indexOf(CharSequence text, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c)
+                return i;
+        }
+        return -1;
+    }
 
+    private static IllegalArgumentException error(CharSequence text, int start, int end, String problem) {
+        return new IllegalArgumentException(String.format("`%s::parseOrders(...)`: %s in \"%s\"",
+                DATCParser.class.getSimpleName(), problem, text.subSequence(start, end)));
     }
 
 }
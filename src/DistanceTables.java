@@ -0,0 +1,195 @@
+import java.util.*;
+
+/**
+ * `DistanceTables` holds all-pairs shortest-path distances (in # of moves) between the Provinces of a map, for every `Mode` of movement<br><br>
+ *
+ * Distances are computed once, by one BFS per source, and stored as flat `byte` matrices (`[from * n + to]`) -- every lookup is O(1).<br>
+ * Area-level modes (`ARMY`, `FLEET`, `ANY`) copy each area's row & column to all of its coasts, so lookups never need to normalize coasts.<br><br>
+ *
+ * Unreachable pairs (e.g. an army to a sea, or anything to the dummy `Province.Swi`) are `UNREACHABLE`.
+ */
+public final class DistanceTables {
+
+
+    public static final int UNREACHABLE = Byte.MAX_VALUE;
+
+    public enum Mode {
+        ARMY,           // armies over land, by area
+        FLEET,          // fleets over seas & coasts, by area (e.g. Spa/nc & Spa/sc are one area)
+        FLEET_COASTAL,  // fleets over seas & exact coasts (e.g. Spa/nc -> Spa/sc is a real trip); split-coast parents are unreachable
+        ANY             // any unit through land & sea alike, by area (e.g. civil disorder disbands)
+    }
+
+
+    private static DistanceTables standard = null;
+
+
+    private final int       n;
+    private final byte[][]  tables;  // [Mode.ordinal()][from * n + to]
+
+
+    /**
+     * Computes the distance tables of a map
+     * @param areaOf `[province]` -> area of the province (itself, or its split-coast parent)
+     * @param armyAdjacency `[province]` -> Province mask (see `ProvinceMasks`) of every move an army can make from the province
+     * @param fleetAdjacency `[province]` -> Province mask of every move a fleet can make from the province
+     * @param anyAdjacency `[province]` -> Province mask of every neighbor of the province, regardless of unit type
+     */
+    public DistanceTables(int[] areaOf, long[][] armyAdjacency, long[][] fleetAdjacency, long[][] anyAdjacency) {
+
+        this.n = areaOf.length;
+        if (n > 1 << 15)
+            throw new IllegalArgumentException(String.format("`%s`: map is too large (%d provinces)", this.getClass().getSimpleName(), n));
+
+        boolean[] hasSplitCoasts = new boolean[n];
+        for (int province = 0; province < n; province++) {
+            if (areaOf[province] != province)
+                hasSplitCoasts[areaOf[province]] = true;
+        }
+
+        // Edge lists: area-level graphs connect areas, the coast-aware graph connects exact Provinces
+        List<Set<Integer>> army = new ArrayList<>(), fleet = new ArrayList<>(), fleetCoastal = new ArrayList<>(), any = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            army.add(new TreeSet<>());
+            fleet.add(new TreeSet<>());
+            fleetCoastal.add(new TreeSet<>());
+            any.add(new TreeSet<>());
+        }
+        for (int from = 0; from < n; from++) {
+            for (int to : bits(armyAdjacency[from])) {
+                if (areaOf[from] == from)  // (armies never stand on a named coast)
+                    army.get(from).add(areaOf[to]);
+            }
+            for (int to : bits(fleetAdjacency[from])) {
+                fleet.get(areaOf[from]).add(areaOf[to]);
+                if (!hasSplitCoasts[from] && !hasSplitCoasts[to])  // (fleets always stand on a named coast)
+                    fleetCoastal.get(from).add(to);
+            }
+            for (int to : bits(anyAdjacency[from])) {
+                any.get(areaOf[from]).add(areaOf[to]);
+                any.get(areaOf[to]).add(areaOf[from]);
+            }
+        }
+
+        this.tables = new byte[Mode.values().length][];
+        tables[Mode.ARMY.ordinal()] = spreadToCoasts(allPairs(army), areaOf);
+        tables[Mode.FLEET.ordinal()] = spreadToCoasts(allPairs(fleet), areaOf);
+        tables[Mode.FLEET_COASTAL.ordinal()] = allPairs(fleetCoastal);
+        tables[Mode.ANY.ordinal()] = spreadToCoasts(allPairs(any), areaOf);
+
+    }
+
+    /**
+     * @return The distance tables of the standard map (`Province`), computed on first use
+     */
+    public static synchronized DistanceTables standard() {
+
+        if (standard == null)
+            standard = of(GameMap.fromProvinces());
+        return standard;
+
+    }
+
+    /**
+     * Computes the distance tables of a loaded map (indices are the map's Province indices)
+     */
+    public static DistanceTables of(GameMap map) {
+
+        int n = map.size();
+        int[] areaOf = new int[n];
+        long[][] armyAdjacency = new long[n][], fleetAdjacency = new long[n][], anyAdjacency = new long[n][];
+        for (int i = 0; i < n; i++) {
+            areaOf[i] = map.area(i);
+            armyAdjacency[i] = map.adjacency(UnitType.ARMY, i);
+            fleetAdjacency[i] = map.adjacency(UnitType.FLEET, i);
+            anyAdjacency[i] = map.adjacency(i);
+        }
+        return new DistanceTables(areaOf, armyAdjacency, fleetAdjacency, anyAdjacency);
+
+    }
+
+
+    public int distance(Mode mode, int from, int to) {
+        return tables[mode.ordinal()][from * n + to];
+    }
+
+    /**
+     * @return # of moves from `from` to `to` in `mode`, or `UNREACHABLE`
+     */
+    public int distance(Mode mode, Province from, Province to) {
+        return tables[mode.ordinal()][from.ordinal() * n + to.ordinal()];
+    }
+
+    /**
+     * @return # of moves from `from` to the nearest of `targets` in `mode`, or `UNREACHABLE`
+     */
+    public int distanceToNearest(Mode mode, Province from, Collection<Province> targets) {
+
+        byte[] table = tables[mode.ordinal()];
+        int nearest = UNREACHABLE;
+        for (Province target : targets)
+            nearest = Math.min(nearest, table[from.ordinal() * n + target.ordinal()]);
+        return nearest;
+
+    }
+
+    /**
+     * @return # of Provinces covered by these tables
+     */
+    public int size() {
+        return n;
+    }
+
+
+    private byte[] allPairs(List<Set<Integer>> edges) {
+
+        byte[] table = new byte[n * n];
+        Arrays.fill(table, (byte) UNREACHABLE);
+        int[] queue = new int[n];
+
+        for (int source = 0; source < n; source++) {
+            int head = 0, tail = 0;
+            table[source * n + source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int node = queue[head++];
+                int distance = table[source * n + node];
+                if (distance + 1 >= UNREACHABLE)
+                    continue;
+                for (int next : edges.get(node)) {
+                    if (table[source * n + next] == UNREACHABLE) {
+                        table[source * n + next] = (byte) (distance + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        return table;
+
+    }
+
+    // Area-level tables are computed between areas; copy them to every coast of each area
+    private byte[] spreadToCoasts(byte[] table, int[] areaOf) {
+
+        byte[] spread = new byte[n * n];
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++)
+                spread[from * n + to] = table[areaOf[from] * n + areaOf[to]];
+        }
+        return spread;
+
+    }
+
+    private static List<Integer> bits(long[] mask) {
+
+        List<Integer> bits = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            for (long w = mask[word]; w != 0; w &= w - 1)
+                bits.add((word << 6) + Long.numberOfTrailingZeros(w));
+        }
+        return bits;
+
+    }
+
+}
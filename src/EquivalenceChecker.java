@@ -0,0 +1,499 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Checks that every fast path agrees with plain `Judge` -- run on the same Orders, in the same List order (`Judge` is deterministic
+ * for a given order, so any difference is a bug) -- over the DATC corpus & `NUM_RANDOM_POSITIONS` seeded random positions<br><br>
+ *
+ * Checks (all of them by default, or those named as arguments):<br>
+ *      ~ `pusher`: `PiecePusher::judge(...)` on a fresh transposition table (i.e. through its `BoardState` & Judge)<br>
+ *      ~ `transpositions`: `PiecePusher::judge(...)` again, on a shuffled copy -- must hit, with the same verdicts --
+ *        and once more with a `Referee`, which must miss (another `Judge::variantKey()`)<br>
+ *      ~ `cache`: `AdjudicationCache::judge(...)` -- a miss vs. `Judge` on the canonical order (which a miss judges in),
+ *        then a hit on a shuffled copy, which must reproduce the miss exactly (verdicts & any Szykman Holds)<br>
+ *      ~ `preview`: `PreviewJudge::change(...)`, `PREVIEW_CHANGES` random re-orders in a row, each vs. a full `Judge` of the changed Orders<br>
+ *      ~ `clusters`: `ClusterJudge` vs. `Judge`; then with an `AdjudicationCache` (clusters judged in canonical order) vs. `Judge` on the
+ *        canonical order, once missing & once hitting on a shuffled copy -- skipping any verdict a `Judge` left unresolved (a guess)<br>
+ *      ~ `parallel`: as `clusters`, for `ParallelClusterJudge` -- serial below 2 processors (`POOL_SIZE` is printed), so on a 1-CPU machine
+ *        run with e.g. `-XX:ActiveProcessorCount=4`<br>
+ *      ~ `codec`: `PhaseCodec` round trips of every position, judged & unjudged -- encode, decode, re-encode (same bytes, same Orders
+ *        & verdicts) -- then all of them through one `PhaseCodec.Writer` & `Reader` stream<br>
+ *      ~ `archive`: every position as a phase of a `GameArchive` in a temp directory -- reopened & read back (`readRange(...)` &
+ *        `read(...)`: same phases, same result boards), then re-appended to a 2nd archive, whose files must be byte-identical<br><br>
+ *
+ * Prints the first `MAX_MISMATCHES_SHOWN` mismatches of each check, then a summary; throws if any check found one.<br>
+ * Usage: `EquivalenceChecker [check...]`
+ */
+public class EquivalenceChecker {
+
+
+    public static final long    SEED                    = 2501L;
+    public static final int     NUM_RANDOM_POSITIONS    = 500;   // (`RandomOrders.fullBoard(...)` & `randomBoard(...)`, alternately)
+    public static final int     FULL_BOARD_UNITS        = 34;
+    public static final int     MAX_MISMATCHES_SHOWN    = 10;    // per check
+    public static final int     PREVIEW_CHANGES         = 3;     // per position
+
+
+    /**
+     * One position to check: a named Order List (never judged itself -- every check works on its own copies)
+     */
+    private static final class Position {
+
+        final String        name;
+        final List<Order>   orders;
+
+        Position(String name, List<Order> orders) {
+            this.name = name;
+            this.orders = orders;
+        }
+
+    }
+
+    /**
+     * One check over all positions
+     */
+    @FunctionalInterface
+    private interface Check {
+
+        /**
+         * @param positions Positions to check
+         * @param mismatches Receives a description of every mismatch found
+         * @return # of comparisons made
+         */
+        int run(List<Position> positions, List<String> mismatches) throws IOException;
+
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("pusher", EquivalenceChecker::checkPusher);
+        checks.put("transpositions", EquivalenceChecker::checkTranspositions);
+        checks.put("cache", EquivalenceChecker::checkCache);
+        checks.put("preview", EquivalenceChecker::checkPreview);
+        checks.put("clusters", (positions, mismatches) -> checkClusterJudge(positions, mismatches, ClusterJudge::new, "ClusterJudge"));
+        checks.put("parallel", (positions, mismatches) -> checkClusterJudge(positions, mismatches, ParallelClusterJudge::new, "ParallelClusterJudge"));
+        checks.put("codec", EquivalenceChecker::checkCodec);
+        checks.put("archive", EquivalenceChecker::checkArchive);
+
+        List<String> names = (args.length > 0 ? List.of(args) : new ArrayList<>(checks.keySet()));
+        for (String name : names) {
+            if (!checks.containsKey(name))
+                throw new IllegalArgumentException(String.format("`%s`: unknown check %s (checks: %s)",
+                        EquivalenceChecker.class.getSimpleName(), name, checks.keySet()));
+        }
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        List<Position> positions = positions();
+        System.out.printf("%d positions; checks: %s; `ParallelClusterJudge.POOL_SIZE` = %d\n\n", positions.size(), names, ParallelClusterJudge.POOL_SIZE);
+
+        int failed = 0;
+        for (String name : names) {
+
+            List<String> mismatches = new ArrayList<>();
+            int compared = checks.get(name).run(positions, mismatches);
+            if (mismatches.isEmpty())
+                System.out.printf("%-16s %8d compared\tOK\n", name, compared);
+            else {
+                failed++;
+                System.out.printf("%-16s %8d compared\t%s%d MISMATCHED%s\n", name, compared, Constants.ANSI_RED, mismatches.size(), Constants.ANSI_RESET);
+                for (String mismatch : mismatches.subList(0, Math.min(MAX_MISMATCHES_SHOWN, mismatches.size())))
+                    System.out.println("\t" + mismatch);
+            }
+
+        }
+        System.out.println();
+
+        Constants.printTimestamp();
+
+        if (failed > 0)
+            throw new IllegalStateException(String.format("`%s`: %d of %d check(s) failed",
+                    EquivalenceChecker.class.getSimpleName(), failed, names.size()));
+
+    }
+
+
+    // `PiecePusher::judge(...)`, on a miss, vs. `Judge`
+    private static int checkPusher(List<Position> positions, List<String> mismatches) {
+
+        for (Position position : positions) {
+            PiecePusher.TRANSPOSITIONS.clear();  // (per position: some DATC cases repeat one, e.g. 6.G.03 & 6.G.20)
+            List<Order> orders = Orders.deepCopy(position.orders);
+            PiecePusher pusher = new PiecePusher(BoardState.fromOrders(orders), orders);
+            if (pusher.judge(Judge::new))
+                mismatches.add(String.format("%s: hit on a fresh transposition table", position.name));
+            compare(position, verdictsOf(orders, position.orders), "PiecePusher", mismatches);
+        }
+        return positions.size();
+
+    }
+
+    // `PiecePusher::judge(...)`, on a hit, vs. the miss that stored it -- and keyed apart from a `Referee`
+    private static int checkTranspositions(List<Position> positions, List<String> mismatches) {
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (Position position : positions) {
+
+            PiecePusher.TRANSPOSITIONS.clear();
+            List<Order> orders = Orders.deepCopy(position.orders);
+            new PiecePusher(BoardState.fromOrders(orders), orders).judge(Judge::new);
+
+            // (same Order set, another List order: the position hash must not depend on it)
+            List<Order> shuffled = Orders.deepCopy(position.orders);
+            shuffle(shuffled, random);
+            if (!new PiecePusher(BoardState.fromOrders(shuffled), shuffled).judge(Judge::new))
+                mismatches.add(String.format("%s: shuffled copy missed the transposition table", position.name));
+            compare(position, verdictsOf(orders, position.orders), verdictsOf(shuffled, position.orders), "transposition hit", mismatches);
+
+            List<Order> refereed = Orders.deepCopy(position.orders);
+            if (new PiecePusher(BoardState.fromOrders(refereed), refereed).judge(copy -> new Referee(copy, 1)))
+                mismatches.add(String.format("%s: a Referee hit the plain Judge's transposition", position.name));
+
+        }
+        return positions.size();
+
+    }
+
+    // `AdjudicationCache::judge(...)`: a miss vs. `Judge` (in canonical order), then a hit vs. the miss
+    private static int checkCache(List<Position> positions, List<String> mismatches) {
+
+        AdjudicationCache cache = new AdjudicationCache(positions.size());
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (Position position : positions) {
+
+            cache.clear();  // (per position: some DATC cases repeat one)
+            Position canonical = new Position(position.name, Orders.canonicalize(position.orders));
+            List<Order> orders = Orders.deepCopy(position.orders);
+            Judge miss = new Judge(orders);
+            if (cache.judge(miss))
+                mismatches.add(String.format("%s: hit on an empty cache", position.name));
+            compare(canonical, verdictsOf(miss.getOrders(), canonical.orders), "cache miss", mismatches);
+
+            List<Order> shuffled = Orders.deepCopy(position.orders);
+            shuffle(shuffled, random);
+            Judge hit = new Judge(shuffled);
+            if (!cache.judge(hit))
+                mismatches.add(String.format("%s: shuffled copy missed the cache", position.name));
+            List<Order> missed = Orders.conformOrder(miss.getOrders(), position.orders), hits = Orders.conformOrder(hit.getOrders(), position.orders);
+            for (int i = 0; i < missed.size(); i++) {
+                if (Orders.pack(missed.get(i)) != Orders.pack(hits.get(i)) || missed.get(i).verdict != hits.get(i).verdict) {
+                    mismatches.add(String.format("%s: cache hit gives %s (%b), the miss gave %s (%b)", position.name,
+                            hits.get(i), hits.get(i).verdict, missed.get(i), missed.get(i).verdict));
+                    break;
+                }
+            }
+
+        }
+        return positions.size();
+
+    }
+
+    // `PreviewJudge::change(...)` vs. a full `Judge` of the changed Orders (in the same List order), after every change
+    private static int checkPreview(List<Position> positions, List<String> mismatches) {
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        int compared = 0;
+        for (Position position : positions) {
+
+            if (position.orders.isEmpty())
+                continue;
+            PreviewJudge preview = new PreviewJudge(Orders.deepCopy(position.orders));
+            preview.judge();
+            List<Order> current = Orders.deepCopy(position.orders);  // (unjudged: the reference for a full re-judge)
+
+            for (int change = 0; change < PREVIEW_CHANGES; change++) {
+                int index = random.nextInt(current.size());
+                Order newOrder = RandomOrders.reorder(current.get(index), current, random);
+                current.set(index, new Order(newOrder));
+                preview.change(newOrder);
+                Position changed = new Position(String.format("%s, change #%d (%s)", position.name, change + 1, newOrder), current);
+                compare(changed, verdictsOf(preview.getOrders(), current), "PreviewJudge", mismatches);
+                compared++;
+            }
+
+        }
+        return compared;
+
+    }
+
+    // A cluster Judge vs. `Judge` -- without a cache (same List order), then with one (canonical order: a canonical List's clusters are canonical too)
+    // ... only verdicts both sides settled: `Judge` can leave a cycle unresolved (e.g. around self-attacks), and then its verdicts
+    //     are the 1st run's guesses, which depend on every other Order in the List -- so on a cluster alone, they may differ
+    private static int checkClusterJudge(List<Position> positions, List<String> mismatches,
+                                         BiFunction<Collection<Order>, AdjudicationCache, Judge> clusterJudge, String what) {
+
+        AdjudicationCache cache = new AdjudicationCache();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int compared = 0, guessed = 0;
+        for (Position position : positions) {
+
+            Boolean[] expected = referenceSettledVerdicts(position.orders);
+            List<Order> orders = Orders.deepCopy(position.orders);
+            Judge judge = clusterJudge.apply(orders, null);
+            judge.judge();
+            guessed += compareSettled(position, expected, settledVerdicts(judge.getOrders(), position.orders), what, mismatches);
+
+            cache.clear();
+            Position canonical = new Position(position.name, Orders.canonicalize(position.orders));
+            expected = referenceSettledVerdicts(canonical.orders);
+            for (String pass : new String[]{"cache misses", "cache hits"}) {
+                List<Order> copy = Orders.deepCopy(position.orders);
+                shuffle(copy, random);
+                Judge cached = clusterJudge.apply(copy, cache);
+                cached.judge();
+                guessed += compareSettled(canonical, expected, settledVerdicts(cached.getOrders(), canonical.orders), what + " (" + pass + ")", mismatches);
+            }
+            compared += 3 * position.orders.size();
+
+        }
+        System.out.printf("(%s: %d of %d verdicts left unresolved by `Judge` -- not compared)\n", what, guessed, compared);
+        return compared - guessed;
+
+    }
+
+    // `PhaseCodec`: encode -> decode -> re-encode, frame by frame, then as one stream
+    private static int checkCodec(List<Position> positions, List<String> mismatches) throws IOException {
+
+        Season[] seasons = Season.values();
+        List<PhaseCodec.Phase> phases = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            Judge judge = new Judge(Orders.deepCopy(position.orders));
+            judge.judge();
+            phases.add(new PhaseCodec.Phase(1901 + i, seasons[i % seasons.length], true, new ArrayList<>(judge.getOrders())));
+            phases.add(new PhaseCodec.Phase(1901 + i, seasons[i % seasons.length], false, Orders.deepCopy(position.orders)));
+        }
+
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseCodec.Phase phase = phases.get(i);
+            ByteBuffer encoded = ByteBuffer.allocate(PhaseCodec.frameSize(phase.orders.size()));
+            PhaseCodec.encode(encoded, phase.year, phase.season, phase.adjudicated, phase.orders);
+            encoded.flip();
+            PhaseCodec.Phase decoded = PhaseCodec.decode(encoded.duplicate());
+            comparePhases(positions.get(i / 2).name, phase, decoded, "decode", mismatches);
+
+            ByteBuffer reencoded = ByteBuffer.allocate(encoded.remaining());
+            PhaseCodec.encode(reencoded, decoded.year, decoded.season, decoded.adjudicated, decoded.orders);
+            if (!reencoded.flip().equals(encoded))
+                mismatches.add(String.format("%s: re-encoding the decoded phase gives other bytes", positions.get(i / 2).name));
+        }
+
+        // (~150 bytes a frame: more than `PhaseCodec.BUFFER_SIZE` in all, so the Writer flushes partway & the Reader refills)
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (PhaseCodec.Writer writer = new PhaseCodec.Writer(Channels.newChannel(stream))) {
+            for (PhaseCodec.Phase phase : phases)
+                writer.write(phase.year, phase.season, phase.adjudicated, phase.orders);
+        }
+        try (PhaseCodec.Reader reader = new PhaseCodec.Reader(Channels.newChannel(new ByteArrayInputStream(stream.toByteArray())))) {
+            for (int i = 0; i < phases.size(); i++) {
+                PhaseCodec.Phase decoded = reader.next();
+                if (decoded == null) {
+                    mismatches.add(String.format("stream: ended after %d of %d phases", i, phases.size()));
+                    break;
+                }
+                comparePhases(positions.get(i / 2).name, phases.get(i), decoded, "stream", mismatches);
+            }
+            if (reader.next() != null)
+                mismatches.add("stream: holds more phases than were written");
+        }
+
+        return 2 * phases.size();
+
+    }
+
+    // A decoded phase vs. the one encoded: header, & every Order (all packed fields), verdict (if adjudicated) & `resolved` flag
+    private static void comparePhases(String name, PhaseCodec.Phase expected, PhaseCodec.Phase actual, String what, List<String> mismatches) {
+
+        if (expected.year != actual.year || expected.season != actual.season || expected.adjudicated != actual.adjudicated
+                || expected.orders.size() != actual.orders.size()) {
+            mismatches.add(String.format("%s: %s gives %d %s (%b, %d Orders), expected %d %s (%b, %d Orders)", name, what,
+                    actual.year, actual.season, actual.adjudicated, actual.orders.size(),
+                    expected.year, expected.season, expected.adjudicated, expected.orders.size()));
+            return;
+        }
+        for (int i = 0; i < expected.orders.size(); i++) {
+            Order order = expected.orders.get(i), decoded = actual.orders.get(i);
+            if (Orders.pack(order) != Orders.pack(decoded) || order.verdict != decoded.verdict || decoded.resolved != expected.adjudicated) {
+                mismatches.add(String.format("%s: %s gives %s (%b) for %s (%b)", name, what, decoded, decoded.verdict, order, order.verdict));
+                return;
+            }
+        }
+
+    }
+
+    // `GameArchive`: append -> close -> reopen & read back -> re-append (same bytes)
+    private static int checkArchive(List<Position> positions, List<String> mismatches) throws IOException {
+
+        Season[] seasons = Season.values();
+        List<GameArchive.Record> records = new ArrayList<>();
+        for (int game = 0; game < positions.size(); game++) {
+            List<Order> orders = Orders.deepCopy(positions.get(game).orders);
+            BoardState board = BoardState.fromOrders(orders);
+            int year = Constants.STARTING_YEAR + game % 50;
+            Season season = seasons[game % seasons.length];
+            try {
+                new Judge(orders).judge();
+                records.add(new GameArchive.Record(game, new PhaseCodec.Phase(year, season, true, orders), Transition.of(orders).apply(board)));
+            } catch (RuntimeException | StackOverflowError ex) {
+                // (as `ReplayRunner`: kept, unadjudicated)
+                records.add(new GameArchive.Record(game, new PhaseCodec.Phase(year, season, false, Orders.deepCopy(positions.get(game).orders)), board));
+            }
+        }
+
+        Path written = Files.createTempDirectory("check-archive"), rewritten = Files.createTempDirectory("check-archive");
+        try {
+
+            appendAll(written, records);
+
+            List<GameArchive.Record> readBack;
+            try (GameArchive archive = GameArchive.open(written)) {
+                if (archive.size() != records.size())
+                    mismatches.add(String.format("reopened archive holds %d phases, %d were appended", archive.size(), records.size()));
+                readBack = archive.readRange(0, Math.min(archive.size(), records.size()));
+                for (int i = 0; i < readBack.size(); i++) {
+                    GameArchive.Record expected = records.get(i);
+                    compareRecords(positions.get(i).name, expected, readBack.get(i), "readRange(...)", mismatches);
+                    compareRecords(positions.get(i).name, expected,
+                            archive.read(expected.game, expected.phase.year, expected.phase.season), "read(...)", mismatches);
+                }
+            }
+
+            appendAll(rewritten, readBack);
+            for (String file : new String[]{GameArchive.SEGMENT_FILE, GameArchive.INDEX_FILE}) {
+                long mismatch = Files.mismatch(written.resolve(file), rewritten.resolve(file));
+                if (mismatch >= 0)
+                    mismatches.add(String.format("re-appending the read-back phases gives another %s (from byte %d)", file, mismatch));
+            }
+
+        } finally {
+            for (Path directory : new Path[]{written, rewritten}) {
+                try (var files = Files.list(directory)) {
+                    for (Path file : files.toList())
+                        Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(directory);
+            }
+        }
+
+        return 2 * records.size();
+
+    }
+
+    private static void appendAll(Path directory, List<GameArchive.Record> records) throws IOException {
+        try (GameArchive archive = GameArchive.open(directory)) {
+            for (GameArchive.Record record : records)
+                archive.append(record.game, record.phase.year, record.phase.season, record.phase.adjudicated, record.phase.orders, record.result);
+            archive.flush();
+        }
+    }
+
+    // A read-back record vs. the one appended: game, phase (see `comparePhases(...)`), & result board (incl. its Zobrist hash)
+    private static void compareRecords(String name, GameArchive.Record expected, GameArchive.Record actual, String what, List<String> mismatches) {
+
+        if (actual == null) {
+            mismatches.add(String.format("%s: %s finds no phase", name, what));
+            return;
+        }
+        if (actual.game != expected.game)
+            mismatches.add(String.format("%s: %s gives game %d, expected %d", name, what, actual.game, expected.game));
+        comparePhases(name, expected.phase, actual.phase, what, mismatches);
+        if (!actual.result.equals(expected.result) || actual.result.zobristHash() != expected.result.zobristHash())
+            mismatches.add(String.format("%s: %s gives another result board", name, what));
+
+    }
+
+
+    // The DATC corpus (without solutions: `Judge` is the reference, not the rulebook), then the random positions
+    private static List<Position> positions() throws IOException {
+
+        List<Position> positions = new ArrayList<>();
+        for (TestCase testCase : TestCaseLoader.load(Paths.get(DATCFileParser.TESTGAMES_DIR_PATH), null))
+            positions.add(new Position(testCase.getName(), testCase.getOrders()));
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < NUM_RANDOM_POSITIONS; i++) {
+            BoardState board = (i % 2 == 0 ? RandomOrders.fullBoard(random) : RandomOrders.randomBoard(FULL_BOARD_UNITS, random));
+            positions.add(new Position(String.format("random #%d (seed %d)", i, SEED), RandomOrders.generate(board, random)));
+        }
+        return positions;
+
+    }
+
+    // Verdicts of plain `Judge` on a copy of `orders`, in the order of `orders`
+    private static boolean[] referenceVerdicts(List<Order> orders) {
+        List<Order> copy = Orders.deepCopy(orders);
+        Judge judge = new Judge(copy);
+        judge.judge();
+        return verdictsOf(judge.getOrders(), orders);
+    }
+
+    // Verdicts of `resolved`, in the order of `orders` (matched by unit)
+    private static boolean[] verdictsOf(Collection<Order> resolved, List<Order> orders) {
+        List<Order> conformed = Orders.conformOrder(resolved, orders);
+        boolean[] verdicts = new boolean[conformed.size()];
+        for (int i = 0; i < verdicts.length; i++)
+            verdicts[i] = conformed.get(i).verdict;
+        return verdicts;
+    }
+
+    // ... null where `Judge` left an Order unresolved
+    private static Boolean[] referenceSettledVerdicts(List<Order> orders) {
+        Judge judge = new Judge(Orders.deepCopy(orders));
+        judge.judge();
+        return settledVerdicts(judge.getOrders(), orders);
+    }
+
+    // ... null where an Order was left unresolved
+    private static Boolean[] settledVerdicts(Collection<Order> resolved, List<Order> orders) {
+        List<Order> conformed = Orders.conformOrder(resolved, orders);
+        Boolean[] verdicts = new Boolean[conformed.size()];
+        for (int i = 0; i < verdicts.length; i++)
+            verdicts[i] = (conformed.get(i).resolved ? conformed.get(i).verdict : null);
+        return verdicts;
+    }
+
+    private static void shuffle(List<Order> orders, SplittableRandom random) {
+        for (int i = orders.size() - 1; i > 0; i--)
+            Collections.swap(orders, i, random.nextInt(i + 1));
+    }
+
+    // Compares `actual` with `Judge`'s verdicts on the same Orders, in the same order
+    private static void compare(Position position, boolean[] actual, String what, List<String> mismatches) {
+        compare(position, referenceVerdicts(position.orders), actual, what, mismatches);
+    }
+
+    private static void compare(Position position, boolean[] expected, boolean[] actual, String what, List<String> mismatches) {
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                mismatches.add(String.format("%s: %s says %b for %s (expected: %b)", position.name, what, actual[i], position.orders.get(i), expected[i]));
+                return;
+            }
+        }
+    }
+
+    // ... skipping verdicts either side left unresolved; returns # skipped
+    private static int compareSettled(Position position, Boolean[] expected, Boolean[] actual, String what, List<String> mismatches) {
+        int skipped = 0;
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] == null || actual[i] == null)
+                skipped++;
+            else if (!expected[i].equals(actual[i])) {
+                mismatches.add(String.format("%s: %s says %b for %s (expected: %b)", position.name, what, actual[i], position.orders.get(i), expected[i]));
+                return skipped;
+            }
+        }
+        return skipped;
+    }
+
+}
@@ -0,0 +1,436 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only archive of adjudicated phases -- Orders, verdicts & the resulting `BoardState` -- of many games, with O(1) random access
+ * by (game, year, `Season`)<br><br>
+ *
+ * An archive is a directory of two files:<br>
+ *      ~ `SEGMENT_FILE`: a header (`SEGMENT_MAGIC`, version, # of Provinces), then one record per phase, back to back: a `PhaseCodec` frame,
+ *        then the resulting board (year, season, units as packed HOLD Orders, & the owner of every supply center).
+ *        Because of that board trailer, the segment is <u>not</u> a `PhaseCodec` stream (`PhaseCodec.Reader` rejects its header) --
+ *        read it through `read(...)` / `readRange(...)`<br>
+ *      ~ `INDEX_FILE`: a header (magic, version, # of <i>durable</i> entries), then one fixed-width (`ENTRY_SIZE`) entry per record:
+ *        game, year, season, record offset & length, & the record's CRC-32. The index is memory-mapped (& grown by doubling).<br>
+ * An in-memory hash table (key --> entry #), rebuilt from the mapped index on open, answers lookups; a lookup then costs one positional read.<br>
+ * A phase whose adjudication failed can be kept for the record: its frame has `PhaseCodec.ADJUDICATED` unset, so its verdicts mean nothing.<br><br>
+ *
+ * <b>Crash safety:</b> a record is written to the segment before its index entry, and `flush()` forces the segment, then the index,
+ * then the durable count in the index header. On open, entries up to the durable count are trusted; later ones are checked
+ * (contiguous, in bounds, CRC matches) and the archive is truncated after the last good one -- so a crash mid-append loses
+ * at most the phases appended since the last `flush()`, and never corrupts earlier ones.<br><br>
+ *
+ * All public methods are synchronized, so one archive may be shared across threads (e.g. a writer & spectators) --
+ * but calls run one at a time: a read waits behind any append or `flush()` in progress, and readers do not read in parallel.
+ */
+public final class GameArchive implements Closeable {
+
+
+    public static final String  SEGMENT_FILE    = "phases.seg";
+    public static final String  INDEX_FILE      = "phases.idx";
+
+    public static final int     MAGIC           = 0x44495058;  // "DIPX"
+    public static final int     SEGMENT_MAGIC   = 0x44495053;  // "DIPS"
+    public static final short   FORMAT_VERSION  = 2;  // (of both files; 1 had a `PhaseCodec` header on the segment)
+    public static final int     SEGMENT_HEADER_SIZE = 4 + 2 + 2;  // magic, version, # of Provinces
+    public static final int     INDEX_HEADER_SIZE = 4 + 2 + 2 + 8;  // magic, version, (reserved), # of durable entries
+    public static final int     ENTRY_SIZE      = 4 + 2 + 1 + 1 + 8 + 4 + 4;  // game, year, season, (reserved), offset, length, CRC
+    public static final int     INITIAL_ENTRIES = 1 << 10;
+
+    private static final Province[] PROVINCES   = Province.values();
+    private static final Nation[]   NATIONS     = Nation.values();
+    private static final Season[]   SEASONS     = Season.values();
+    private static final Province[] SUPPLY_CENTERS = Arrays.stream(PROVINCES)
+            .filter(province -> province.supplyCenter && province.parent == null)
+            .toArray(Province[]::new);
+
+    private final FileChannel       segment;
+    private final FileChannel       index;
+    private MappedByteBuffer        indexMap;
+    private long                    segmentEnd;
+    private int                     numEntries;
+    private int                     maxGame = -1;  // highest game id held (-1: none)
+
+    // Open addressing: `keys[slot]` -> `entries[slot] - 1` (0: empty slot)
+    private long[]                  keys;
+    private int[]                   entries;
+    private int                     numKeys;
+
+
+    /**
+     * A phase read back from the archive
+     */
+    public static final class Record {
+
+        public final int                game;
+        public final PhaseCodec.Phase   phase;
+        public final BoardState         result;
+
+        public Record(int game, PhaseCodec.Phase phase, BoardState result) {
+            this.game = game;
+            this.phase = phase;
+            this.result = result;
+        }
+
+    }
+
+
+    private GameArchive(FileChannel segment, FileChannel index) {
+        this.segment = segment;
+        this.index = index;
+    }
+
+
+    /**
+     * Opens (or creates) the archive in `directory`, recovering from any interrupted appends
+     * @param directory Directory of the archive (created if missing)
+     * @return The open archive
+     * @throws IOException If the archive cannot be read or written
+     * @throws IllegalStateException If the archive is of another format version, or corrupt before its durable count
+     */
+    public static GameArchive open(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        FileChannel segment = FileChannel.open(directory.resolve(SEGMENT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index;
+        try {
+            index = FileChannel.open(directory.resolve(INDEX_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            segment.close();
+            throw ex;
+        }
+
+        GameArchive archive = new GameArchive(segment, index);
+        try {
+            archive.recover();
+        } catch (IOException | RuntimeException ex) {
+            archive.segment.close();
+            archive.index.close();
+            throw ex;
+        }
+        return archive;
+
+    }
+
+    /**
+     * Appends a phase (not yet durable -- see `flush()`)
+     * @param game Game id
+     * @param year Year of the phase
+     * @param season Season of the phase
+     * @param adjudicated Whether `orders` were adjudicated (false: adjudication threw -- the phase is kept, its verdicts are meaningless)
+     * @param orders Orders of the phase (with verdicts, if `adjudicated`)
+     * @param result Board after the phase
+     * @throws IllegalArgumentException If the archive already holds this (game, year, season)
+     */
+    public synchronized void append(int game, int year, Season season, boolean adjudicated, Collection<Order> orders,
+                                    BoardState result) throws IOException {
+
+        long key = key(game, year, season);
+        if (this.find(key) >= 0)
+            throw new IllegalArgumentException(String.format("`%s::append(...)`: game %d already has a %s %d phase",
+                    this.getClass().getSimpleName(), game, season, year));
+
+        List<Order> units = result.toOrders();
+        ByteBuffer record = ByteBuffer.allocate(PhaseCodec.frameSize(orders.size()) + 2 + 1 + 2 + 4 * units.size() + SUPPLY_CENTERS.length);
+        PhaseCodec.encode(record, year, season, adjudicated, orders);
+        record.putShort((short) result.year).put((byte) result.season.ordinal()).putShort((short) units.size());
+        for (Order unit : units)
+            record.putInt(PhaseCodec.packOrder(unit));
+        for (Province supplyCenter : SUPPLY_CENTERS) {
+            Nation owner = result.supplyCenterOwnerOf(supplyCenter);
+            record.put((byte) (owner == null ? 0 : owner.ordinal() + 1));
+        }
+        record.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+        int length = record.remaining();
+        for (long position = this.segmentEnd; record.hasRemaining(); )
+            position += this.segment.write(record, position);
+
+        // The entry goes in only once its record is fully written
+        this.ensureIndexCapacity(this.numEntries + 1);
+        int entry = INDEX_HEADER_SIZE + this.numEntries * ENTRY_SIZE;
+        this.indexMap.putInt(entry, game).putShort(entry + 4, (short) year).put(entry + 6, (byte) season.ordinal()).put(entry + 7, (byte) 0)
+                .putLong(entry + 8, this.segmentEnd).putInt(entry + 16, length).putInt(entry + 20, (int) crc.getValue());
+
+        this.segmentEnd += length;
+        this.insert(key, this.numEntries++);
+        this.maxGame = Math.max(this.maxGame, game);
+
+    }
+
+    /**
+     * @return The phase (game, year, season), or null if the archive does not hold it
+     */
+    public synchronized Record read(int game, int year, Season season) throws IOException {
+
+        int entry = this.find(key(game, year, season));
+        if (entry < 0)
+            return null;
+        return this.readRange(entry, entry + 1).get(0);
+
+    }
+
+    /**
+     * Reads a run of consecutive records (in append order) with one positional read -- e.g. to stream a whole archive in batches
+     * @param from # of the first entry (inclusive)
+     * @param to # of the last entry (exclusive)
+     * @return A new List of the records
+     * @throws IndexOutOfBoundsException If the range is not within [0, `size()`]
+     */
+    public synchronized List<Record> readRange(int from, int to) throws IOException {
+
+        Objects.checkFromToIndex(from, to, this.numEntries);
+        if (from == to)
+            return new ArrayList<>();
+
+        int first = INDEX_HEADER_SIZE + from * ENTRY_SIZE, last = INDEX_HEADER_SIZE + (to - 1) * ENTRY_SIZE;
+        long start = this.indexMap.getLong(first + 8);
+        long end = this.indexMap.getLong(last + 8) + this.indexMap.getInt(last + 16);
+        if (end - start > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("`%s::readRange(...)`: entries [%d, %d) span more than 2 GiB",
+                    this.getClass().getSimpleName(), from, to));
+
+        ByteBuffer records = ByteBuffer.allocate((int) (end - start));
+        while (records.hasRemaining()) {
+            if (this.segment.read(records, start + records.position()) < 0)
+                throw new IllegalStateException(String.format("`%s::readRange(...)`: entries [%d, %d) run past the end of the segment",
+                        this.getClass().getSimpleName(), from, to));
+        }
+        records.flip();
+
+        List<Record> result = new ArrayList<>(to - from);
+        for (int entry = from; entry < to; entry++)
+            result.add(decodeRecord(this.indexMap.getInt(INDEX_HEADER_SIZE + entry * ENTRY_SIZE), records));
+        return result;
+
+    }
+
+    /**
+     * @return Whether the archive holds the phase (game, year, season)
+     */
+    public synchronized boolean contains(int game, int year, Season season) {
+        return this.find(key(game, year, season)) >= 0;
+    }
+
+    /**
+     * @return An id for a new game: 1 + the highest game id in the archive (0 if empty)
+     */
+    public synchronized int nextGame() {
+        return this.maxGame + 1;
+    }
+
+    /**
+     * @return # of phases in the archive
+     */
+    public synchronized int size() {
+        return this.numEntries;
+    }
+
+    /**
+     * Makes every phase appended so far durable: forces the segment, then the index, then the index header's durable count
+     */
+    public synchronized void flush() throws IOException {
+        this.segment.force(false);
+        this.indexMap.force();
+        this.indexMap.putLong(8, this.numEntries);
+        this.indexMap.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            try {
+                this.segment.close();
+            } finally {
+                this.index.close();
+            }
+        }
+    }
+
+
+    private void recover() throws IOException {
+
+        // Segment header
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        if (this.segment.size() < SEGMENT_HEADER_SIZE) {
+            header.putInt(SEGMENT_MAGIC).putShort(FORMAT_VERSION).putShort((short) PROVINCES.length);
+            header.flip();
+            this.segment.truncate(0);
+            while (header.hasRemaining())
+                this.segment.write(header, header.position());
+        } else {
+            while (header.hasRemaining() && this.segment.read(header, header.position()) >= 0);
+            header.flip();
+            if (header.getInt() != SEGMENT_MAGIC || header.getShort() != FORMAT_VERSION)
+                throw new IllegalStateException(String.format("`%s::open(...)`: not an archive segment of format version %d",
+                        this.getClass().getSimpleName(), FORMAT_VERSION));
+            short numProvinces = header.getShort();
+            if (numProvinces != PROVINCES.length)
+                throw new IllegalStateException(String.format("`%s::open(...)`: segment was written for %d Provinces, not %d",
+                        this.getClass().getSimpleName(), numProvinces, PROVINCES.length));
+        }
+
+        // Index header
+        long indexSize = this.index.size();
+        this.indexMap = this.index.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(indexSize, INDEX_HEADER_SIZE + (long) INITIAL_ENTRIES * ENTRY_SIZE));
+        long durable = 0;
+        if (indexSize < INDEX_HEADER_SIZE)
+            this.indexMap.putInt(0, MAGIC).putShort(4, FORMAT_VERSION).putShort(6, (short) 0).putLong(8, 0);
+        else {
+            if (this.indexMap.getInt(0) != MAGIC || this.indexMap.getShort(4) != FORMAT_VERSION)
+                throw new IllegalStateException(String.format("`%s::open(...)`: not an archive index of format version %d",
+                        this.getClass().getSimpleName(), FORMAT_VERSION));
+            durable = this.indexMap.getLong(8);
+        }
+        long maxEntries = (this.indexMap.capacity() - INDEX_HEADER_SIZE) / ENTRY_SIZE;
+        if (durable < 0 || durable > maxEntries)
+            throw new IllegalStateException(String.format("`%s::open(...)`: index claims %d durable entries, but holds at most %d",
+                    this.getClass().getSimpleName(), durable, maxEntries));
+
+        // Entries: trust the durable ones, check the rest
+        long segmentSize = this.segment.size();
+        this.segmentEnd = SEGMENT_HEADER_SIZE;
+        this.numEntries = 0;
+        while (this.numEntries < maxEntries) {
+            int at = INDEX_HEADER_SIZE + this.numEntries * ENTRY_SIZE;
+            long offset = this.indexMap.getLong(at + 8);
+            int length = this.indexMap.getInt(at + 16);
+            boolean trusted = this.numEntries < durable;
+            if (!trusted && !this.isIntact(offset, length, this.indexMap.getInt(at + 20), segmentSize))
+                break;
+            if (trusted && (offset != this.segmentEnd || offset + length > segmentSize))
+                throw new IllegalStateException(String.format("`%s::open(...)`: durable entry %d points outside the segment",
+                        this.getClass().getSimpleName(), this.numEntries));
+            this.segmentEnd = offset + length;
+            this.numEntries++;
+        }
+
+        // Drop whatever an interrupted append left behind
+        for (int at = INDEX_HEADER_SIZE + this.numEntries * ENTRY_SIZE; at < INDEX_HEADER_SIZE + maxEntries * ENTRY_SIZE; at += ENTRY_SIZE) {
+            if (this.indexMap.getInt(at + 16) == 0)
+                break;
+            this.indexMap.put(at, new byte[ENTRY_SIZE]);
+        }
+        if (segmentSize > this.segmentEnd)
+            this.segment.truncate(this.segmentEnd);
+
+        this.keys = new long[Math.max(16, Integer.highestOneBit(Math.max(1, this.numEntries)) << 2)];
+        this.entries = new int[this.keys.length];
+        this.numKeys = 0;
+        this.maxGame = -1;
+        for (int entry = 0; entry < this.numEntries; entry++) {
+            int at = INDEX_HEADER_SIZE + entry * ENTRY_SIZE;
+            this.insert(key(this.indexMap.getInt(at), this.indexMap.getShort(at + 4), SEASONS[this.indexMap.get(at + 6)]), entry);
+            this.maxGame = Math.max(this.maxGame, this.indexMap.getInt(at));
+        }
+
+        this.flush();
+
+    }
+
+    // Decodes the record at `buffer`'s position (a `PhaseCodec` frame, then the resulting board)
+    private static Record decodeRecord(int game, ByteBuffer buffer) {
+
+        PhaseCodec.Phase phase = PhaseCodec.decode(buffer);
+        int resultYear = buffer.getShort();
+        Season resultSeason = SEASONS[buffer.get()];
+        int numUnits = buffer.getShort();
+        BoardState.Editor editor = BoardState.empty(resultYear, resultSeason).edit();
+        for (int i = 0; i < numUnits; i++) {
+            Order unit = PhaseCodec.unpackOrder(buffer.getInt());
+            editor.placeUnit(unit.pos0, unit.owner, unit.unitType);
+        }
+        for (Province supplyCenter : SUPPLY_CENTERS) {
+            int owner = buffer.get();
+            editor.setSupplyCenterOwner(supplyCenter, (owner == 0 ? null : NATIONS[owner - 1]));
+        }
+
+        return new Record(game, phase, editor.build());
+
+    }
+
+    // Whether a (non-durable) entry's record is the next one in the segment, & fully written
+    private boolean isIntact(long offset, int length, int crc, long segmentSize) throws IOException {
+
+        if (offset != this.segmentEnd || length <= 0 || offset + length > segmentSize)
+            return false;
+        ByteBuffer record = ByteBuffer.allocate(length);
+        while (record.hasRemaining() && this.segment.read(record, offset + record.position()) >= 0);
+        record.flip();
+        CRC32 actual = new CRC32();
+        actual.update(record);
+        return (int) actual.getValue() == crc;
+
+    }
+
+    private void ensureIndexCapacity(int numEntries) throws IOException {
+        long needed = INDEX_HEADER_SIZE + (long) numEntries * ENTRY_SIZE;
+        if (needed <= this.indexMap.capacity())
+            return;
+        this.indexMap.force();
+        long capacity = INDEX_HEADER_SIZE + 2L * (this.indexMap.capacity() - INDEX_HEADER_SIZE);
+        if (capacity > Integer.MAX_VALUE)
+            throw new IllegalStateException(String.format("`%s`: index is full (%d entries)", this.getClass().getSimpleName(), this.numEntries));
+        this.indexMap = this.index.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static long key(int game, int year, Season season) {
+        return ((long) game << 32) | ((year & 0xFFFFL) << 8) | season.ordinal();
+    }
+
+    // Entry # of `key`, or -1
+    private int find(long key) {
+        int mask = this.keys.length - 1;
+        for (int slot = (int) Zobrist.mix64(key) & mask; this.entries[slot] != 0; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key)
+                return this.entries[slot] - 1;
+        }
+        return -1;
+    }
+
+    private void insert(long key, int entry) {
+
+        if (2 * (this.numKeys + 1) > this.keys.length) {  // (keep the load factor under 1/2)
+            long[] oldKeys = this.keys;
+            int[] oldEntries = this.entries;
+            this.keys = new long[2 * oldKeys.length];
+            this.entries = new int[2 * oldKeys.length];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldEntries[slot] != 0)
+                    this.put(oldKeys[slot], oldEntries[slot]);
+            }
+        }
+        this.put(key, entry + 1);
+        this.numKeys++;
+
+    }
+
+    private void put(long key, int value) {
+        int mask = this.keys.length - 1;
+        int slot = (int) Zobrist.mix64(key) & mask;
+        while (this.entries[slot] != 0)
+            slot = (slot + 1) & mask;
+        this.keys[slot] = key;
+        this.entries[slot] = value;
+    }
+
+}
@@ -0,0 +1,701 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * `GameMap` is a data-driven map: Provinces, coasts, supply centers, home centers & adjacency, loaded from a text <i>definition</i>
+ * rather than hardcoded like `Province`<br><br>
+ *
+ * A definition is compiled once into a compact binary artifact (`<definition>.bin`: ids, names, coast tables, SC/home data, and the
+ * raw & per-UnitType adjacency bitsets) which is memory-mapped (or, if small, read) on later loads. The artifact records the CRC-32 of the definition it was
+ * compiled from, so editing the definition simply triggers a recompile (see `load(...)`).<br><br>
+ *
+ * Provinces are identified by their index (0 .. `size()`), in definition order. Adjacency masks use the layout of `ProvinceMasks`
+ * (`long[]`, one bit per index), are derived by the same rules as `ProvinceMasks` & `Orders.orderIsValid(...)`, and are shared:
+ * <u>never mutate them</u>.<br><br>
+ *
+ * <b>NOTE:</b> this is map I/O only -- adjudication does not run on a `GameMap`. `Judge`, `Orders` & `Convoys` speak `Province`,
+ * so a loaded map (a variant, or `SyntheticMaps`) is usable by id-level tools (e.g. `DistanceTables.of(...)`) only.
+ *
+ * <pre>
+ * # comment
+ * province &lt;id&gt; &lt;Geography&gt; &lt;coastId&gt; &lt;CoastType&gt; &lt;parent|-&gt; &lt;suffix|-&gt; &lt;home Nation|-&gt; &lt;supply center 0|1&gt; &lt;full name...&gt;
+ * adj &lt;id&gt; &lt;neighbor id&gt;...
+ * </pre>
+ */
+public final class GameMap {
+
+
+    public static final String  STANDARD_MAP_PATH   = "src/maps/standard.map";
+    public static final String  BINARY_FILE_EXT     = ".bin";  // Include the dot
+
+    public static final int     NO_PROVINCE         = -1;
+
+    private static final int    MAGIC               = 0x44495050;  // "DIPP"
+    private static final short  FORMAT_VERSION      = 1;
+    private static final char   NO_VALUE            = '-';
+    private static final long   MIN_MAPPED_SIZE     = 1 << 16;  // in bytes (see `readBinary(...)`)
+
+    private static final Geography[]    GEOGRAPHIES = Geography.values();
+    private static final CoastType[]    COAST_TYPES = CoastType.values();
+    private static final Nation[]       NATIONS     = Nation.values();
+
+
+    private final long          sourceChecksum;  // CRC-32 of the definition this map was compiled from
+    private final int           n;
+    private final int           words;
+
+    private final String[]      ids;
+    private final String[]      fullNames;
+    private final String[]      suffixes;
+    private final Geography[]   geographies;
+    private final CoastType[]   coastTypes;
+    private final int[]         coastIds;
+    private final int[]         parents;
+    private final Nation[]      homes;
+    private final boolean[]     supplyCenters;
+
+    private final long[][]      adjacency;       // [province] -> raw neighbors, as listed in the definition
+    private final long[][][]    unitAdjacency;   // [UnitType][province] -> legal moves
+
+    private final int[]         areaOf;
+    private final boolean[]     hasSplitCoasts;
+    private final Map<String, Integer> index;
+
+
+    private GameMap(long sourceChecksum, String[] ids, String[] fullNames, String[] suffixes, Geography[] geographies,
+                    CoastType[] coastTypes, int[] coastIds, int[] parents, Nation[] homes, boolean[] supplyCenters,
+                    long[][] adjacency, long[][][] unitAdjacency) {
+
+        this.sourceChecksum = sourceChecksum;
+        this.n = ids.length;
+        this.words = wordsFor(n);
+        this.ids = ids;
+        this.fullNames = fullNames;
+        this.suffixes = suffixes;
+        this.geographies = geographies;
+        this.coastTypes = coastTypes;
+        this.coastIds = coastIds;
+        this.parents = parents;
+        this.homes = homes;
+        this.supplyCenters = supplyCenters;
+        this.adjacency = adjacency;
+
+        this.areaOf = new int[n];
+        this.hasSplitCoasts = new boolean[n];
+        this.index = new HashMap<>();
+        for (int province = 0; province < n; province++) {
+            areaOf[province] = (parents[province] == NO_PROVINCE ? province : parents[province]);
+            if (parents[province] != NO_PROVINCE)
+                hasSplitCoasts[parents[province]] = true;
+            if (index.put(ids[province], province) != null)
+                throw new IllegalArgumentException(String.format("`%s`: duplicate Province id %s", this.getClass().getSimpleName(), ids[province]));
+        }
+
+        this.unitAdjacency = (unitAdjacency != null ? unitAdjacency : deriveUnitAdjacency());
+
+    }
+
+
+    /**
+     * Regenerates the standard map definition (`STANDARD_MAP_PATH`) from `Province`
+     */
+    public static void main(String[] args) throws IOException {
+
+        Path definition = Paths.get(args.length > 0 ? args[0] : STANDARD_MAP_PATH);
+        Files.createDirectories(definition.toAbsolutePath().getParent());
+        Files.writeString(definition, fromProvinces().toDefinition());
+        System.out.printf("Wrote %s\n", definition);
+
+    }
+
+
+    /**
+     * @return The standard map, straight from `Province` (ids are the enum's names, indices its ordinals)
+     */
+    public static GameMap fromProvinces() {
+
+        Province[] provinces = Province.values();
+        Map<Province, Province[]> adjacencyMap = Province.getAdjacencyMapCopy();
+        int n = provinces.length;
+
+        String[] ids = new String[n], fullNames = new String[n], suffixes = new String[n];
+        Geography[] geographies = new Geography[n];
+        CoastType[] coastTypes = new CoastType[n];
+        int[] coastIds = new int[n], parents = new int[n];
+        Nation[] homes = new Nation[n];
+        boolean[] supplyCenters = new boolean[n];
+        long[][] adjacency = new long[n][];
+
+        for (Province province : provinces) {
+            int i = province.ordinal();
+            ids[i] = province.name();
+            fullNames[i] = province.fullName;
+            suffixes[i] = province.suffix;
+            geographies[i] = province.geography;
+            coastTypes[i] = province.coastType;
+            coastIds[i] = province.coastId;
+            parents[i] = (province.parent == null ? NO_PROVINCE : province.parent.ordinal());
+            homes[i] = province.owner;
+            supplyCenters[i] = province.supplyCenter;
+            adjacency[i] = new long[wordsFor(n)];
+            for (Province neighbor : adjacencyMap.getOrDefault(province, new Province[0]))
+                adjacency[i][neighbor.ordinal() >>> 6] |= (1L << neighbor.ordinal());
+        }
+
+        return new GameMap(checksum(null), ids, fullNames, suffixes, geographies, coastTypes, coastIds, parents, homes, supplyCenters,
+                adjacency, null);
+
+    }
+
+    /**
+     * Loads a map definition, through its compiled artifact (`<definition>.bin`) when that is up to date<br><br>
+     *
+     * A missing, stale (compiled from another version of the definition) or corrupt artifact is (re)compiled & rewritten;
+     * if it cannot be written (e.g. a read-only directory), the freshly parsed map is used as-is.
+     *
+     * @param definition Path to a map definition
+     * @return The loaded `GameMap`
+     * @throws IOException If the definition cannot be read
+     */
+    public static GameMap load(Path definition) throws IOException {
+
+        byte[] source = Files.readAllBytes(definition);
+        long checksum = checksum(source);
+        Path binary = binaryPathOf(definition);
+
+        if (Files.isRegularFile(binary)) {
+            try {
+                GameMap compiled = readBinary(binary);
+                if (compiled.sourceChecksum == checksum)
+                    return compiled;
+            } catch (IOException | IllegalStateException ex) {
+                System.err.printf("`%s`: Discarding unreadable map artifact %s (%s)\n", "GameMap.java", binary, ex.getMessage());
+            }
+        }
+
+        GameMap map = parse(new String(source, StandardCharsets.UTF_8), checksum);
+        try {
+            map.writeBinary(binary);
+        } catch (IOException ex) {
+            System.err.printf("`%s`: Could not write map artifact %s (%s)\n", "GameMap.java", binary, ex.getMessage());
+        }
+        return map;
+
+    }
+
+    public static Path binaryPathOf(Path definition) {
+        return definition.resolveSibling(definition.getFileName() + BINARY_FILE_EXT);
+    }
+
+    /**
+     * Parses a map definition (see the class JDoc for the format)
+     * @param definition Map definition text
+     * @return A new `GameMap`
+     * @throws IllegalArgumentException If the definition is malformed (the message names the offending line)
+     */
+    public static GameMap parse(String definition) {
+        return parse(definition, checksum(definition.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static GameMap parse(String definition, long checksum) {
+
+        List<String[]> provinceLines = new ArrayList<>();
+        List<String[]> adjacencyLines = new ArrayList<>();
+        List<Integer> adjacencyLineNumbers = new ArrayList<>();
+        List<String> fullNameList = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+
+        String[] lines = definition.split("\n");
+        for (int l = 0; l < lines.length; l++) {
+
+            String line = lines[l].strip();
+            if (line.isEmpty() || line.charAt(0) == '#')
+                continue;
+
+            String[] tokens = line.split("\\s+");
+            if (tokens[0].equals("province")) {
+                if (tokens.length < 10)
+                    throw malformed(l, "expected 9+ fields after `province`", lines[l]);
+                if (index.putIfAbsent(tokens[1], provinceLines.size()) != null)
+                    throw malformed(l, "duplicate Province id", lines[l]);
+                provinceLines.add(tokens);
+                fullNameList.add(String.join(" ", Arrays.copyOfRange(tokens, 9, tokens.length)));
+            } else if (tokens[0].equals("adj")) {
+                adjacencyLines.add(tokens);
+                adjacencyLineNumbers.add(l);
+            } else {
+                throw malformed(l, "unknown directive", lines[l]);
+            }
+
+        }
+
+        int n = provinceLines.size();
+        String[] ids = new String[n], fullNames = fullNameList.toArray(new String[0]), suffixes = new String[n];
+        Geography[] geographies = new Geography[n];
+        CoastType[] coastTypes = new CoastType[n];
+        int[] coastIds = new int[n], parents = new int[n];
+        Nation[] homes = new Nation[n];
+        boolean[] supplyCenters = new boolean[n];
+        long[][] adjacency = new long[n][wordsFor(n)];
+
+        for (int i = 0; i < n; i++) {
+            String[] tokens = provinceLines.get(i);
+            try {
+                ids[i] = tokens[1];
+                geographies[i] = Geography.valueOf(tokens[2]);
+                coastIds[i] = Integer.parseInt(tokens[3]);
+                coastTypes[i] = CoastType.valueOf(tokens[4]);
+                parents[i] = (isNone(tokens[5]) ? NO_PROVINCE : Objects.requireNonNull(index.get(tokens[5]), "unknown parent " + tokens[5]));
+                suffixes[i] = (isNone(tokens[6]) ? "" : tokens[6]);
+                homes[i] = (isNone(tokens[7]) ? null : Nation.valueOf(tokens[7]));
+                supplyCenters[i] = tokens[8].equals("1");
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                throw new IllegalArgumentException(String.format("`%s::parse(...)`: bad Province %s (%s)",
+                        GameMap.class.getSimpleName(), tokens[1], ex.getMessage()));
+            }
+        }
+
+        for (int a = 0; a < adjacencyLines.size(); a++) {
+            String[] tokens = adjacencyLines.get(a);
+            int line = adjacencyLineNumbers.get(a);
+            Integer from = (tokens.length < 2 ? null : index.get(tokens[1]));
+            if (from == null)
+                throw malformed(line, "unknown Province", lines[line]);
+            for (int t = 2; t < tokens.length; t++) {
+                Integer to = index.get(tokens[t]);
+                if (to == null)
+                    throw malformed(line, "unknown neighbor " + tokens[t], lines[line]);
+                adjacency[from][to >>> 6] |= (1L << to);
+            }
+        }
+
+        return new GameMap(checksum, ids, fullNames, suffixes, geographies, coastTypes, coastIds, parents, homes, supplyCenters,
+                adjacency, null);
+
+    }
+
+    /**
+     * @return This map as a definition, which `parse(...)` turns back into an equal map
+     */
+    public String toDefinition() {
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("# province <id> <Geography> <coastId> <CoastType> <parent|-> <suffix|-> <home Nation|-> <supply center 0|1> <full name...>\n");
+        for (int i = 0; i < n; i++) {
+            sb.append(String.format("province %s %s %d %s %s %s %s %d %s\n", ids[i], geographies[i], coastIds[i], coastTypes[i],
+                    (parents[i] == NO_PROVINCE ? NO_VALUE : ids[parents[i]]), (suffixes[i].isEmpty() ? NO_VALUE : suffixes[i]),
+                    (homes[i] == null ? NO_VALUE : homes[i]), (supplyCenters[i] ? 1 : 0), fullNames[i]));
+        }
+
+        sb.append("\n# adj <id> <neighbor id>...\n");
+        for (int i = 0; i < n; i++) {
+            sb.append("adj ").append(ids[i]);
+            for (int neighbor : bits(adjacency[i]))
+                sb.append(' ').append(ids[neighbor]);
+            sb.append('\n');
+        }
+
+        return sb.toString();
+
+    }
+
+
+    /**
+     * Writes this map's compiled artifact -- to a temporary file first, then moved into place, so readers never see a partial artifact
+     * @param binary Destination path
+     * @throws IOException If the artifact cannot be written
+     */
+    public void writeBinary(Path binary) throws IOException {
+
+        byte[][] idBytes = new byte[n][], fullNameBytes = new byte[n][], suffixBytes = new byte[n][];
+        int size = 4 + 2 + 8 + 4;  // magic, version, source checksum, n
+        for (int i = 0; i < n; i++) {
+            idBytes[i] = ids[i].getBytes(StandardCharsets.UTF_8);
+            fullNameBytes[i] = fullNames[i].getBytes(StandardCharsets.UTF_8);
+            suffixBytes[i] = suffixes[i].getBytes(StandardCharsets.UTF_8);
+            size += 3 * 2 + idBytes[i].length + fullNameBytes[i].length + suffixBytes[i].length;
+            size += 1 + 1 + 4 + 4 + 1 + 1;  // geography, coast type, coast id, parent, home, supply center
+        }
+        size += (1 + UnitType.values().length) * n * words * 8;  // raw & per-UnitType adjacency
+        size += 8;  // trailing CRC-32 of everything before it
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putLong(sourceChecksum).putInt(n);
+        for (int i = 0; i < n; i++) {
+            putString(buffer, idBytes[i]);
+            putString(buffer, fullNameBytes[i]);
+            putString(buffer, suffixBytes[i]);
+            buffer.put((byte) geographies[i].ordinal()).put((byte) coastTypes[i].ordinal());
+            buffer.putInt(coastIds[i]).putInt(parents[i]);
+            buffer.put((byte) (homes[i] == null ? -1 : homes[i].ordinal())).put((byte) (supplyCenters[i] ? 1 : 0));
+        }
+        putMasks(buffer, adjacency);
+        for (long[][] masks : unitAdjacency)
+            putMasks(buffer, masks);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+
+        Path directory = binary.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, binary.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            try {
+                Files.move(temp, binary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, binary, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+    }
+
+    /**
+     * Memory-maps (or, if small, reads) a compiled artifact (see `writeBinary(...)`)
+     * @param binary Path to the artifact
+     * @return A new `GameMap`
+     * @throws IOException If the artifact cannot be read
+     * @throws IllegalStateException If the artifact is corrupt, or of another format version
+     */
+    public static GameMap readBinary(Path binary) throws IOException {
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ)) {
+            // The first mapping in a JVM costs ~tens of ms of reflective setup -- small artifacts (e.g. the standard map) are just read
+            if (channel.size() < MIN_MAPPED_SIZE)
+                buffer = ByteBuffer.wrap(Files.readAllBytes(binary));
+            else
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+
+            // (check the length before slicing: a truncated artifact must fail as corrupt, not as a bad `limit(...)`)
+            int end = buffer.limit() - 8;
+            if (end < 0)
+                throw new IllegalStateException(String.format("%d bytes, shorter than its checksum", buffer.limit()));
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(end));
+            if (crc.getValue() != buffer.getLong(end))
+                throw new IllegalStateException("checksum mismatch");
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION)
+                throw new IllegalStateException("not a map artifact of format version " + FORMAT_VERSION);
+
+            long sourceChecksum = buffer.getLong();
+            int n = buffer.getInt();
+            String[] ids = new String[n], fullNames = new String[n], suffixes = new String[n];
+            Geography[] geographies = new Geography[n];
+            CoastType[] coastTypes = new CoastType[n];
+            int[] coastIds = new int[n], parents = new int[n];
+            Nation[] homes = new Nation[n];
+            boolean[] supplyCenters = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                ids[i] = getString(buffer);
+                fullNames[i] = getString(buffer);
+                suffixes[i] = getString(buffer);
+                geographies[i] = GEOGRAPHIES[buffer.get()];
+                coastTypes[i] = COAST_TYPES[buffer.get()];
+                coastIds[i] = buffer.getInt();
+                parents[i] = buffer.getInt();
+                byte home = buffer.get();
+                homes[i] = (home < 0 ? null : NATIONS[home]);
+                supplyCenters[i] = buffer.get() != 0;
+            }
+
+            long[][] adjacency = getMasks(buffer, n);
+            long[][][] unitAdjacency = new long[UnitType.values().length][][];
+            for (int u = 0; u < unitAdjacency.length; u++)
+                unitAdjacency[u] = getMasks(buffer, n);
+
+            return new GameMap(sourceChecksum, ids, fullNames, suffixes, geographies, coastTypes, coastIds, parents, homes, supplyCenters,
+                    adjacency, unitAdjacency);
+
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException(String.format("`%s::readBinary(...)`: corrupt map artifact %s (%s)",
+                    GameMap.class.getSimpleName(), binary, ex.getMessage()), ex);
+        }
+
+    }
+
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return # of `long` words per Province mask of this map
+     */
+    public int words() {
+        return words;
+    }
+
+    /**
+     * @return CRC-32 of the definition this map was compiled from (0 for `fromProvinces()`)
+     */
+    public long sourceChecksum() {
+        return sourceChecksum;
+    }
+
+    /**
+     * @return Index of the Province with id `id`, or `NO_PROVINCE`
+     */
+    public int indexOf(String id) {
+        return index.getOrDefault(id, NO_PROVINCE);
+    }
+
+    public String id(int province) {
+        return ids[province];
+    }
+
+    public String fullName(int province) {
+        return fullNames[province];
+    }
+
+    public String suffix(int province) {
+        return suffixes[province];
+    }
+
+    public Geography geography(int province) {
+        return geographies[province];
+    }
+
+    public CoastType coastType(int province) {
+        return coastTypes[province];
+    }
+
+    public int coastId(int province) {
+        return coastIds[province];
+    }
+
+    /**
+     * @return Index of the split-coast parent of `province`, or `NO_PROVINCE`
+     */
+    public int parent(int province) {
+        return parents[province];
+    }
+
+    /**
+     * @return Area of `province` (see `BoardState.area(...)`): its split-coast parent, or itself
+     */
+    public int area(int province) {
+        return areaOf[province];
+    }
+
+    /**
+     * @return Home Nation of the supply center `province`, or null
+     */
+    public Nation home(int province) {
+        return homes[province];
+    }
+
+    public boolean isSupplyCenter(int province) {
+        return supplyCenters[province];
+    }
+
+    public boolean isAdjacent(int from, int to) {
+        return (adjacency[from][to >>> 6] & (1L << to)) != 0;
+    }
+
+    /**
+     * @return Shared mask of the raw neighbors of `province`, as listed in the definition (<u>do not mutate</u>)
+     */
+    public long[] adjacency(int province) {
+        return adjacency[province];
+    }
+
+    /**
+     * @return Shared mask of every Province a unit of type `unitType` at `province` can move to (<u>do not mutate</u>)
+     */
+    public long[] adjacency(UnitType unitType, int province) {
+        return unitAdjacency[unitType.ordinal()][province];
+    }
+
+    /**
+     * @return Whether a unit of type `unitType` can stand at exactly `province` (see `ProvinceMasks.canOccupy(...)`)
+     */
+    public boolean canOccupy(UnitType unitType, int province) {
+
+        if (unitType == UnitType.ARMY)
+            return geographies[province] != Geography.WATER && coastTypes[province] != CoastType.SPLIT;
+        return geographies[province] != Geography.INLAND && !hasSplitCoasts[province];
+
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o)
+            return true;
+        if (!(o instanceof GameMap other) || other.n != n)
+            return false;
+        for (int i = 0; i < n; i++) {
+            if (!sameProvince(i, other))
+                return false;
+        }
+        return true;
+
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(ids), Arrays.deepHashCode(adjacency));
+    }
+
+    @Override
+    public String toString() {
+        int centers = 0;
+        for (int i = 0; i < n; i++) {
+            if (supplyCenters[i] && parents[i] == NO_PROVINCE)  // (count split-coast areas once)
+                centers++;
+        }
+        return String.format("%s[%d Provinces, %d supply centers]", this.getClass().getSimpleName(), n, centers);
+    }
+
+
+    // Province `i` of this map & of `other` agree on everything, incl. their (derived) adjacency
+    private boolean sameProvince(int i, GameMap other) {
+
+        if (!ids[i].equals(other.ids[i]) || !fullNames[i].equals(other.fullNames[i]) || !suffixes[i].equals(other.suffixes[i]) ||
+                geographies[i] != other.geographies[i] || coastTypes[i] != other.coastTypes[i] || coastIds[i] != other.coastIds[i] ||
+                parents[i] != other.parents[i] || homes[i] != other.homes[i] || supplyCenters[i] != other.supplyCenters[i] ||
+                !Arrays.equals(adjacency[i], other.adjacency[i]))
+            return false;
+        for (int u = 0; u < unitAdjacency.length; u++) {
+            if (!Arrays.equals(unitAdjacency[u][i], other.unitAdjacency[u][i]))
+                return false;
+        }
+        return true;
+
+    }
+
+    // Mirrors `ProvinceMasks`: every raw neighbor the unit can stand on, that `Orders.orderIsValid(...)` allows a Move to, and
+    // (for fleets) that is `Province.adjacentBySea(...)`
+    private long[][][] deriveUnitAdjacency() {
+
+        long[][][] derived = new long[UnitType.values().length][n][];
+        for (UnitType unitType : UnitType.values()) {
+            for (int from = 0; from < n; from++) {
+                long[] mask = new long[words];
+                if (canOccupy(unitType, from)) {
+                    for (int to : bits(adjacency[from])) {
+                        if (canOccupy(unitType, to) && moveIsValid(unitType, from, to) &&
+                                (unitType == UnitType.ARMY || adjacentBySea(from, to)))
+                            mask[to >>> 6] |= (1L << to);
+                    }
+                }
+                derived[unitType.ordinal()][from] = mask;
+            }
+        }
+        return derived;
+
+    }
+
+    // See `Orders.orderIsValid(...)`, case MOVE
+    private boolean moveIsValid(UnitType unitType, int from, int to) {
+
+        if (areaOf[from] == areaOf[to])
+            return false;
+        if (unitType == UnitType.ARMY)
+            return geographies[to] != Geography.WATER && coastTypes[to] != CoastType.SPLIT;
+        return geographies[to] != Geography.INLAND && isAdjacent(from, to);
+
+    }
+
+    // See `Province.isAdjacentToIgnoreSplitCoast(...)`
+    private boolean isAdjacentIgnoreSplitCoast(int from, int to) {
+
+        if (isAdjacent(from, to))
+            return true;
+        if (coastTypes[to] != CoastType.SPLIT)
+            return false;
+        if (coastTypes[from] == CoastType.SPLIT && parents[from] != NO_PROVINCE) {
+            if (parents[to] != NO_PROVINCE)
+                return isAdjacent(parents[from], parents[to]);
+            return isAdjacent(parents[from], to);
+        }
+        return (parents[to] != NO_PROVINCE && isAdjacent(from, parents[to]));
+
+    }
+
+    // See `Province.adjacentBySea(...)`
+    private boolean adjacentBySea(int from, int to) {
+
+        if (!isAdjacentIgnoreSplitCoast(from, to))
+            return false;
+        if (geographies[from] != Geography.COASTAL || geographies[to] != Geography.COASTAL)
+            return true;
+        return Math.abs(coastIds[from] - coastIds[to]) == 1;
+
+    }
+
+
+    private static boolean isNone(String token) {
+        return token.length() == 1 && token.charAt(0) == NO_VALUE;
+    }
+
+    private static IllegalArgumentException malformed(int line, String problem, String text) {
+        return new IllegalArgumentException(String.format("`%s::parse(...)`: line %d: %s: %s",
+                GameMap.class.getSimpleName(), line + 1, problem, text.strip()));
+    }
+
+    private static long checksum(byte[] source) {
+        if (source == null)
+            return 0;
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return crc.getValue();
+    }
+
+    private static int wordsFor(int n) {
+        return Math.max(1, (n + 63) / 64);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] utf8) {
+        buffer.putShort((short) utf8.length).put(utf8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void putMasks(ByteBuffer buffer, long[][] masks) {
+        for (long[] mask : masks) {
+            for (long word : mask)
+                buffer.putLong(word);
+        }
+    }
+
+    private static long[][] getMasks(ByteBuffer buffer, int n) {
+        int words = wordsFor(n);
+        long[][] masks = new long[n][words];
+        LongBuffer longs = buffer.asLongBuffer();  // (bulk reads straight from the mapping)
+        for (long[] mask : masks)
+            longs.get(mask);
+        buffer.position(buffer.position() + n * words * 8);
+        return masks;
+    }
+
+    private static List<Integer> bits(long[] mask) {
+
+        List<Integer> bits = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            for (long w = mask[word]; w != 0; w &= w - 1)
+                bits.add((word << 6) + Long.numberOfTrailingZeros(w));
+        }
+        return bits;
+
+    }
+
+}
@@ -37,6 +37,49 @@ public class Judge {
         return orders;
     }
 
+    /**
+     * @return # of `resolve(...)` calls made by this Judge so far, over all of its `judge()` calls (e.g. every trial of a `Referee`)
+     */
+    public long getResolveCalls() {
+        return resolveCalls;
+    }
+
+
+    /**
+     * Identifies the 'kind' of adjudication this Judge performs, for caching purposes:
+     *      two Judges with equal variant keys must always reach the same resolution for the same Orders
+     * @return 64-bit key of this Judge's type & configuration
+     */
+    protected long variantKey() {
+        return Zobrist.mix64(this.getClass().getName().hashCode());
+    }
+
+    /**
+     * Applies a previously-computed resolution of `orders` (e.g. from a cache), in place of calling `judge()`<br><br>
+     *
+     * Mirrors the effects of `judge()`: every Order in `orders` is overwritten <i>in place</i> with its resolved counterpart
+     * (matched by unit position), including any Szykman Hold replacements
+     *
+     * @param resolution Resolved Orders, one per unit in `orders`
+     */
+    protected void applyResolution(Collection<Order> resolution) {
+
+        Order[] resolvedByArea = new Order[Province.values().length];
+        for (Order resolved : resolution) {
+            if (resolved.pos0 != null)
+                resolvedByArea[BoardState.area(resolved.pos0)] = resolved;
+        }
+
+        for (Order order : orders) {
+            if (order.pos0 == null)
+                continue;
+            Order resolved = resolvedByArea[BoardState.area(order.pos0)];
+            if (resolved != null)
+                order.assign(resolved);
+        }
+
+    }
+
 
     /*
      * Global vars for the `resolve()` func:</u><br>
@@ -50,6 +93,8 @@ public class Judge {
     private int         recursionHits   = 0;
     private boolean     uncertain       = false;
 
+    private long        resolveCalls    = 0;  // # of `resolve(...)` calls over this Judge's lifetime (not reset by `judge()`)
+
 
     /**
      * Definitively resolves the Collection of Orders `orders`.<br><br>
@@ -369,6 +414,8 @@ public class Judge {
      */
     private boolean resolve(Order order, boolean optimistic) {
 
+        resolveCalls++;
+
         if (order.resolved)
             // Resolution already exists
             return order.verdict;
@@ -0,0 +1,237 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Baseline benchmark of `Judge::judge()` over the DATC corpus (`src/testgames/`): throughput & allocation per test case,
+ * per category (6.A - 6.G), and over the whole corpus<br><br>
+ *
+ * Modeled on a JMH run (fork-less): per case, `WARMUP_ITERATIONS` unmeasured then `MEASUREMENT_ITERATIONS` measured iterations of
+ * `ITERATION_MILLIS` each. Setup -- parsing, & the `Orders.deepCopy(...)` every invocation needs (Judges resolve in place) -- happens
+ * outside the timed region: each batch of `BATCH_SIZE` copies is made first, then judged back to back under the clock.
+ * Allocation (B/op) is measured per thread around the timed region only; GC counts & times cover the measured iterations.<br>
+ * A category's (& the corpus') figures are derived from its cases: one op judges every case in it once.<br><br>
+ *
+ * Usage: `JudgeBenchmark [--save <file>] [--compare <file>]` -- saves the results as a baseline (tab-separated ns/op & B/op per row),
+ * and/or prints each row's change against a saved baseline.<br>
+ * <b>NOTE:</b> without forks, every case runs on JIT profiles left by the ones before it, and `Judge`'s work on paradoxes follows hash order
+ * -- so expect double-digit % swings on single cases between runs; trust the category & corpus rows, over a few runs, for comparisons.
+ */
+public class JudgeBenchmark {
+
+
+    public static final int WARMUP_ITERATIONS       = 3;
+    public static final int MEASUREMENT_ITERATIONS  = 5;
+    public static final int ITERATION_MILLIS        = 50;
+    public static final int BATCH_SIZE              = 64;   // copies made (untimed) per timed batch
+
+    private static volatile int sink;  // (consumes verdicts, so that no judging can be optimized away)
+
+
+    /**
+     * Measurements of one row (a test case, a category, or the corpus)
+     */
+    private static final class Row {
+
+        final String    name;
+        final double    nanosPerOp, nanosError;  // mean, & standard deviation across iterations
+        final double    bytesPerOp;
+        final long      gcCount, gcMillis;
+
+        Row(String name, double nanosPerOp, double nanosError, double bytesPerOp, long gcCount, long gcMillis) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.nanosError = nanosError;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        Path save = null, compare = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--save" -> save = Paths.get(args[i + 1]);
+                case "--compare" -> compare = Paths.get(args[i + 1]);
+                default -> throw new IllegalArgumentException(String.format("`%s`: unknown option %s", JudgeBenchmark.class.getSimpleName(), args[i]));
+            }
+        }
+        Map<String, double[]> baseline = (compare == null ? Map.of() : readBaseline(compare));
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        // Setup (unmeasured)
+        List<TestCase> testCases = TestCaseLoader.load(Paths.get(DATCFileParser.TESTGAMES_DIR_PATH), null);
+        System.out.printf("%d test cases; %d warmup + %d measured iterations of %d ms per case\n\n", testCases.size(),
+                WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+
+        List<Row> rows = new ArrayList<>();
+        Map<String, List<Row>> categories = new TreeMap<>();
+        for (TestCase testCase : testCases) {
+            Row row = measure(testCase);
+            rows.add(row);
+            categories.computeIfAbsent(category(testCase.getName()), key -> new ArrayList<>()).add(row);
+        }
+
+        List<Row> totals = new ArrayList<>();
+        for (Map.Entry<String, List<Row>> category : categories.entrySet())
+            totals.add(sum(category.getKey(), category.getValue()));
+        totals.add(sum("corpus", rows));
+
+        printHeader(!baseline.isEmpty());
+        for (Row row : rows)
+            printRow(row, baseline);
+        System.out.println();
+        for (Row row : totals)
+            printRow(row, baseline);
+        System.out.println();
+
+        if (save != null) {
+            List<String> lines = new ArrayList<>();
+            for (Row row : rows)
+                lines.add(String.format("%s\t%.1f\t%.1f", row.name, row.nanosPerOp, row.bytesPerOp));
+            for (Row row : totals)
+                lines.add(String.format("%s\t%.1f\t%.1f", row.name, row.nanosPerOp, row.bytesPerOp));
+            Files.write(save, lines);
+            System.out.printf("Saved baseline to [%s]\n\n", save);
+        }
+
+        Constants.printTimestamp();
+
+    }
+
+
+    private static Row measure(TestCase testCase) {
+
+        List<Order> orders = testCase.getOrders();
+        double[] nanosPerOp = new double[MEASUREMENT_ITERATIONS];
+        long bytes = 0, ops = 0;
+        long gcCount0 = 0, gcMillis0 = 0;
+
+        for (int iteration = -WARMUP_ITERATIONS; iteration < MEASUREMENT_ITERATIONS; iteration++) {
+
+            if (iteration == 0) {
+                gcCount0 = gcCount();
+                gcMillis0 = gcMillis();
+            }
+
+            long iterationNanos = 0, iterationOps = 0, iterationBytes = 0;
+            while (iterationNanos < ITERATION_MILLIS * 1_000_000L) {
+
+                Judge[] judges = new Judge[BATCH_SIZE];
+                for (int i = 0; i < BATCH_SIZE; i++)
+                    judges[i] = new Judge(Orders.deepCopy(orders));
+
+                long bytes0 = Benchmarks.allocatedBytes();
+                long start = System.nanoTime();
+                for (Judge judge : judges)
+                    judge.judge();
+                iterationNanos += System.nanoTime() - start;
+                iterationBytes = Benchmarks.addAllocated(iterationBytes, Benchmarks.allocatedSince(bytes0));
+                iterationOps += BATCH_SIZE;
+
+                int verdicts = 0;
+                for (Judge judge : judges) {
+                    for (Order order : judge.getOrders())
+                        verdicts += (order.verdict ? 1 : 0);
+                }
+                sink += verdicts;
+
+            }
+
+            if (iteration >= 0) {
+                nanosPerOp[iteration] = (double) iterationNanos / iterationOps;
+                bytes = Benchmarks.addAllocated(bytes, iterationBytes);
+                ops += iterationOps;
+            }
+
+        }
+
+        double mean = 0;
+        for (double sample : nanosPerOp)
+            mean += sample / MEASUREMENT_ITERATIONS;
+        double variance = 0;
+        for (double sample : nanosPerOp)
+            variance += (sample - mean) * (sample - mean) / Math.max(1, MEASUREMENT_ITERATIONS - 1);
+
+        return new Row(testCase.getName(), mean, Math.sqrt(variance), (bytes < 0 ? -1 : (double) bytes / ops),
+                gcCount() - gcCount0, gcMillis() - gcMillis0);
+
+    }
+
+    // One op of a sum judges every case in it once
+    private static Row sum(String name, List<Row> rows) {
+        double nanos = 0, variance = 0, bytes = 0;
+        long gcCount = 0, gcMillis = 0;
+        for (Row row : rows) {
+            nanos += row.nanosPerOp;
+            variance += row.nanosError * row.nanosError;
+            bytes = (row.bytesPerOp < 0 || bytes < 0 ? -1 : bytes + row.bytesPerOp);
+            gcCount += row.gcCount;
+            gcMillis += row.gcMillis;
+        }
+        return new Row(name + " (" + rows.size() + " cases)", nanos, Math.sqrt(variance), bytes, gcCount, gcMillis);
+    }
+
+    // e.g. "6.A.01. MOVING TO AN AREA THAT IS NOT A NEIGHBOUR" -> "6.A"
+    private static String category(String name) {
+        int second = name.indexOf('.', name.indexOf('.') + 1);
+        return (second < 0 ? name : name.substring(0, second));
+    }
+
+    private static void printHeader(boolean compare) {
+        System.out.printf("%-52s %14s %10s %12s %12s %12s%s\n", "benchmark", "ops/s", "error", "us/op", "alloc/op", "gc (n, ms)",
+                (compare ? String.format(" %10s %10s", "time vs.", "alloc vs.") : ""));
+    }
+
+    private static void printRow(Row row, Map<String, double[]> baseline) {
+
+        String name = (row.name.length() > 52 ? row.name.substring(0, 49) + "..." : row.name);
+        double opsPerSecond = 1e9 / row.nanosPerOp;
+        double opsError = opsPerSecond * row.nanosError / row.nanosPerOp;
+        String delta = "";
+        double[] base = baseline.get(row.name);
+        if (base != null)
+            delta = String.format(" %+9.1f%% %10s", 100 * (row.nanosPerOp / base[0] - 1),
+                    (base[1] > 0 && row.bytesPerOp >= 0 ? String.format("%+.1f%%", 100 * (row.bytesPerOp / base[1] - 1)) : "n/a"));
+
+        System.out.printf("%-52s %14.0f %10s %12.2f %12s %12s%s\n", name, opsPerSecond, String.format("+- %.0f", opsError),
+                row.nanosPerOp / 1000, (row.bytesPerOp < 0 ? "n/a" : Benchmarks.formatBytes(Math.round(row.bytesPerOp))),
+                row.gcCount + ", " + row.gcMillis, delta);
+
+    }
+
+    private static Map<String, double[]> readBaseline(Path path) throws IOException {
+        Map<String, double[]> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            String[] fields = line.split("\t");
+            if (fields.length == 3)
+                baseline.put(fields[0], new double[]{Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+        }
+        return baseline;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, bean.getCollectionCount());
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            millis += Math.max(0, bean.getCollectionTime());
+        return millis;
+    }
+
+}
@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Benchmarks how the map tooling scales in map size, on synthetic maps (see `SyntheticMaps`) of hundreds to thousands of Provinces,
+ * and reports the growth exponent between consecutive sizes (see `Benchmarks.growthExponent(...)`):<br>
+ *      ~ compiling a definition (`GameMap.parse(...)`), and its binary artifact round trip<br>
+ *      ~ `DistanceTables.of(...)`<br>
+ *      ~ a random legal Move for one unit per 2 land areas, drawn from the map's adjacency masks<br><br>
+ *
+ * <b>NOTE:</b> this measures map I/O & id-level tools only -- <u>not</u> adjudication. `Judge`, `Convoys` & `Referee` are bound to
+ * `Province` (see `GameMap`), so they cannot run on these maps until adjudication works on `GameMap` ids, and how they scale in map size
+ * stays unmeasured until then. `ScalingBenchmark` measures their scaling in unit count, on the standard map.
+ */
+public class MapScalingBenchmark {
+
+
+    public static final long    SEED                = 2501L;
+    public static final int[]   MAP_SIZES           = {128, 256, 512, 1024, 2048, 4096};
+    public static final int     NUM_MAP_REPS        = 3;     // per map size (the median is reported)
+
+
+    public static void main(String[] args) throws IOException {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        run();
+
+        Constants.printTimestamp();
+
+    }
+
+
+    private static void run() throws IOException {
+
+        System.out.printf("%-8s %8s %12s %12s %12s %14s %12s %12s %14s\n", "cells", "provs", "compile(ms)", "binary(ms)",
+                "dist(ms)", "dist memory", "moves(us)", "units", "exponent");
+
+        Path directory = Files.createTempDirectory("scaling-maps");
+        double previousSize = 0, previousDistance = 0;
+        try {
+
+            for (int size : MAP_SIZES) {
+
+                long[][] nanos = new long[4][NUM_MAP_REPS];
+                GameMap map = null;
+                int numUnits = 0;
+
+                for (int rep = 0; rep < NUM_MAP_REPS; rep++) {
+
+                    SplittableRandom random = new SplittableRandom(SEED + size);
+                    String definition = SyntheticMaps.generateDefinition(size, random);
+
+                    long start = System.nanoTime();
+                    map = GameMap.parse(definition);
+                    nanos[0][rep] = System.nanoTime() - start;
+
+                    Path binary = directory.resolve("synthetic-" + size + ".map" + GameMap.BINARY_FILE_EXT);
+                    start = System.nanoTime();
+                    map.writeBinary(binary);
+                    GameMap.readBinary(binary);
+                    nanos[1][rep] = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    DistanceTables.of(map);
+                    nanos[2][rep] = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    numUnits = randomMoves(map, random);
+                    nanos[3][rep] = System.nanoTime() - start;
+
+                }
+
+                for (long[] samples : nanos)
+                    Arrays.sort(samples);
+                double distanceMillis = nanos[2][NUM_MAP_REPS / 2] / 1e6;
+                System.out.printf("%-8d %8d %12.2f %12.2f %12.2f %14s %12.1f %12d %14s\n", size, map.size(),
+                        nanos[0][NUM_MAP_REPS / 2] / 1e6, nanos[1][NUM_MAP_REPS / 2] / 1e6, distanceMillis,
+                        Benchmarks.formatBytes((long) DistanceTables.Mode.values().length * map.size() * map.size()),
+                        nanos[3][NUM_MAP_REPS / 2] / 1e3, numUnits,
+                        Benchmarks.growthExponent(previousSize, previousDistance, map.size(), distanceMillis));
+                previousSize = map.size();
+                previousDistance = distanceMillis;
+
+            }
+            System.out.println("(medians of " + NUM_MAP_REPS + "; exponent: of DistanceTables time vs. # of Provinces)\n");
+
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList())
+                    Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        }
+
+    }
+
+    // One unit per 2 land areas (armies inland, fleets on coasts & at sea), each Moving somewhere legal; returns the # of units
+    private static int randomMoves(GameMap map, SplittableRandom random) {
+
+        int numUnits = 0;
+        long checksum = 0;
+        for (int province = 0; province < map.size(); province++) {
+            if (map.parent(province) != GameMap.NO_PROVINCE || random.nextBoolean())
+                continue;
+            UnitType unitType = (map.geography(province) == Geography.INLAND ? UnitType.ARMY : UnitType.FLEET);
+            if (!map.canOccupy(unitType, province))
+                continue;
+            long[] moves = map.adjacency(unitType, province);
+            int numMoves = 0;
+            for (long word : moves)
+                numMoves += Long.bitCount(word);
+            if (numMoves == 0)
+                continue;
+            int pick = random.nextInt(numMoves);
+            for (int word = 0; word < moves.length; word++) {
+                int count = Long.bitCount(moves[word]);
+                if (pick < count) {
+                    long w = moves[word];
+                    for (int i = 0; i < pick; i++)
+                        w &= w - 1;
+                    checksum += (word << 6) + Long.numberOfTrailingZeros(w);
+                    break;
+                }
+                pick -= count;
+            }
+            numUnits++;
+        }
+        return (checksum < 0 ? -1 : numUnits);  // (use the checksum, so the work cannot be optimized away)
+
+    }
+
+}
@@ -16,8 +16,7 @@ public class Order implements Comparable<Order> {
     public OrderType    orderType;
     public Province     pos0, pos1, pos2;
 
-    // `dislodged` field not currently utilized (09-21-25 -- now: building up test cases)
-    // TODO: Quasi-implemented: 10/19/25 --> WIP
+    // Set on dislodged movement Orders, & on their RETREAT Orders (see `Transition`)
     public boolean      dislodged;
 
     // Metadata fields -- `protected` access modifiers
@@ -94,6 +93,30 @@ public class Order implements Comparable<Order> {
     }
 
 
+    /**
+     * Overwrites every field of this Order -- core, metadata & snapshot -- with those of another Order<br><br>
+     *
+     * <i><u>Mutator function!</u></i> (The snapshot is cloned, not shared)
+     *
+     * @param source Order to copy from
+     */
+    protected void assign(Order source) {
+
+        this.owner = source.owner;
+        this.unitType = source.unitType;
+        this.orderType = source.orderType;
+        this.pos0 = source.pos0;
+        this.pos1 = source.pos1;
+        this.pos2 = source.pos2;
+        this.dislodged = source.dislodged;
+        this.resolved = source.resolved;
+        this.verdict = source.verdict;
+        this.visited = source.visited;
+        this.suppressH2HAdjudication = source.suppressH2HAdjudication;
+        this.originalOrder = (source.originalOrder == null ? null : new Order(source.originalOrder));
+
+    }
+
     /**
      * Wipes all 'metadata' (adjudication-related) fields: e.g. `resolved`, `verdict`,<br>
      * but not the 'state' fields: e.g. `pos0`, `dislodged`
@@ -0,0 +1,107 @@
+import java.util.*;
+
+/**
+ * Abstract class of static utility functions for partitioning Order sets into independent <i>interaction clusters</i><br><br>
+ *
+ * `Judge` only ever relates two Orders through a shared area -- an attack, a Support (of a Hold or a Move), a Convoy, or simply
+ * a shared origin / destination -- so Orders in different connected components of the "shares an area" graph never affect each other's verdicts.
+ * On a full board, e.g. Scandinavia and the Balkans usually end up in separate clusters.<br><br>
+ *
+ * Clusters are found with union-find over area indexes (see `BoardState.area(...)`), in O(n) for n Orders.
+ * All functions preserve iteration order: clusters are listed by first appearance, and Orders within a cluster keep their relative order.
+ */
+public abstract class OrderClusters {
+
+
+    private static final int NUM_AREAS = Province.values().length;
+
+
+    /**
+     * Partitions a Collection of Orders into its interaction clusters
+     * @param orders Collection of Orders to partition
+     * @return A new List of clusters (each a new List of Orders), covering every Order in `orders` exactly once
+     */
+    public static List<List<Order>> partition(Collection<Order> orders) {
+
+        int[] parents = link(orders);
+
+        int[] clusterIndices = new int[NUM_AREAS];
+        Arrays.fill(clusterIndices, -1);
+        List<List<Order>> clusters = new ArrayList<>();
+        for (Order order : orders) {
+            int root = find(parents, BoardState.area(order.pos0));
+            if (clusterIndices[root] == -1) {
+                clusterIndices[root] = clusters.size();
+                clusters.add(new ArrayList<>());
+            }
+            clusters.get(clusterIndices[root]).add(order);
+        }
+
+        return clusters;
+
+    }
+
+    /**
+     * Collects every Order (in `orders`) connected -- through shared areas -- to an area touched by any of `seeds`<br>
+     * The seeds themselves need not be in `orders` (e.g. an Order that was just replaced)
+     * @param orders Collection of Orders to search
+     * @param seeds Orders whose areas (`pos0`, `pos1`, `pos2`) to start from
+     * @return A new List of the connected Orders, in iteration order
+     */
+    public static List<Order> connectedTo(Collection<Order> orders, Collection<Order> seeds) {
+
+        int[] parents = link(orders);
+
+        boolean[] seeded = new boolean[NUM_AREAS];
+        for (Order seed : seeds) {
+            for (Province pos : new Province[]{seed.pos0, seed.pos1, seed.pos2}) {
+                if (pos != null)
+                    seeded[find(parents, BoardState.area(pos))] = true;
+            }
+        }
+
+        List<Order> cluster = new ArrayList<>();
+        for (Order order : orders) {
+            if (seeded[find(parents, BoardState.area(order.pos0))])
+                cluster.add(order);
+        }
+
+        return cluster;
+
+    }
+
+
+    private static int[] link(Collection<Order> orders) {
+
+        int[] parents = new int[NUM_AREAS];
+        for (int i = 0; i < parents.length; i++)
+            parents[i] = i;
+
+        for (Order order : orders) {
+            // Szykman Holds have lost their `pos1` & `pos2`; connect them as they were originally ordered
+            Order original = (order.getSnapshot() != null ? order.getSnapshot() : order);
+            int root = find(parents, BoardState.area(original.pos0));
+            for (Province pos : new Province[]{original.pos1, original.pos2}) {
+                if (pos == null)
+                    continue;
+                int root2 = find(parents, BoardState.area(pos));
+                if (root2 != root)
+                    parents[root2] = root;
+            }
+        }
+
+        return parents;
+
+    }
+
+    private static int find(int[] parents, int area) {
+
+        while (parents[area] != area) {
+            parents[area] = parents[parents[area]];  // path halving
+            area = parents[area];
+        }
+        return area;
+
+    }
+
+}
@@ -30,8 +30,29 @@ public class OrderComparator implements Comparator<Order> {
         if (pos0Compare != 0)
             return pos0Compare;
 
-        // fallback: `Order::hashcode()`
-        return Integer.compare(order1.hashCode(), order2.hashCode());
+        // if same origin, compare the remaining core fields, so that the ordering is stable between runs
+        // (unlike `Order::hashcode()`, which also depends on metadata)
+        int pos1Compare = compareNullsFirst(order1.pos1, order2.pos1);
+        if (pos1Compare != 0)
+            return pos1Compare;
+
+        int pos2Compare = compareNullsFirst(order1.pos2, order2.pos2);
+        if (pos2Compare != 0)
+            return pos2Compare;
+
+        return Boolean.compare(order1.dislodged, order2.dislodged);
+
+    }
+
+    private static int compareNullsFirst(Province pos1, Province pos2) {
+
+        if (pos1 == pos2)
+            return 0;
+        if (pos1 == null)
+            return -1;
+        if (pos2 == null)
+            return 1;
+        return pos1.name().compareTo(pos2.name());
 
     }
 
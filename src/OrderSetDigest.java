@@ -0,0 +1,73 @@
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A 128-bit digest of a Collection of Orders, computed over its <i>canonical form</i> (see `Orders.canonicalize(...)`)<br><br>
+ *
+ * Only the core Order fields count (see `Orders.pack(...)`); metadata such as `verdict` & `resolved` is ignored,
+ * so an Order set has the same digest before and after adjudication, and regardless of iteration order.<br><br>
+ *
+ * The two 64-bit 'lanes' are seeded differently and mixed independently -- a collision requires both lanes to collide at once.
+ */
+public final class OrderSetDigest {
+
+
+    private static final long SEED_HI = 0x9E3779B97F4A7C15L;
+    private static final long SEED_LO = 0xC2B2AE3D27D4EB4FL;
+
+
+    public final long hi;
+    public final long lo;
+
+
+    public OrderSetDigest(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+
+    public static OrderSetDigest of(Collection<Order> orders) {
+
+        List<Order> canonical = Orders.canonicalize(orders);
+
+        long hi = SEED_HI;
+        long lo = SEED_LO;
+        for (Order order : canonical) {
+            long packed = Orders.pack(order);
+            hi = Zobrist.mix64(hi ^ packed) * 0x9FB21C651E98DF25L;
+            lo = Long.rotateLeft(lo, 31) ^ Zobrist.mix64(packed + lo);
+        }
+
+        // fold in the size, so that prefixes of an Order set never share its digest
+        hi = Zobrist.mix64(hi ^ canonical.size());
+        lo = Zobrist.mix64(lo + canonical.size());
+        return new OrderSetDigest(hi, lo);
+
+    }
+
+    /**
+     * Derives a new digest from this one and a 64-bit 'salt', e.g. to tell apart results from differently-configured Judges
+     * @param salt Salt to mix in
+     * @return A new, salted digest
+     */
+    public OrderSetDigest salted(long salt) {
+        return new OrderSetDigest(Zobrist.mix64(hi ^ salt), Zobrist.mix64(lo + salt));
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        return (other instanceof OrderSetDigest digest2) && this.hi == digest2.hi && this.lo == digest2.lo;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hi ^ lo);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+
+}
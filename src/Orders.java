@@ -6,6 +6,17 @@ import java.util.stream.Collectors;
  */
 public abstract class Orders {
 
+
+    // Default field widths of a packed Order (see `pack(...)`) -- also the width of a location in `BoardState`'s packed units
+    public static final int PACKED_UNIT_TYPE_BITS   = 2;
+    public static final int PACKED_ORDER_TYPE_BITS  = 4;
+    public static final int PACKED_PROVINCE_BITS    = 16;
+
+    private static final Nation[]       NATIONS     = Nation.values();
+    private static final UnitType[]     UNIT_TYPES  = UnitType.values();
+    private static final OrderType[]    ORDER_TYPES = OrderType.values();
+    private static final Province[]     PROVINCES   = Province.values();
+
     /**
      * Checks the validity of an Order
      * @param order Order to check
@@ -313,6 +324,100 @@ public abstract class Orders {
     }
 
 
+    /**
+     * Packs the core fields of an Order (not its metadata) into a single long; each field is stored as `ordinal+1`, or 0 if null<br>
+     * Uses the default field widths (`PACKED_UNIT_TYPE_BITS`, `PACKED_ORDER_TYPE_BITS`, `PACKED_PROVINCE_BITS`)
+     * @param order Order to pack
+     * @return `order`'s core fields, packed
+     */
+    public static long pack(Order order) {
+        return pack(order, PACKED_UNIT_TYPE_BITS, PACKED_ORDER_TYPE_BITS, PACKED_PROVINCE_BITS);
+    }
+
+    /**
+     * Packs the core fields of an Order into a single long, with the given field widths -- the one Order layout,
+     * shared by every packed form (e.g. `PhaseCodec`'s narrower one). High to low:<br>
+     *      ~ owner (the remaining high bits)<br>
+     *      ~ unit type (`unitTypeBits`), order type (`orderTypeBits`)<br>
+     *      ~ pos0, pos1, pos2 (`provinceBits` each)<br>
+     *      ~ dislodged (1 bit)<br>
+     * Each field is stored as `ordinal+1`, or 0 if null.
+     * @param order Order to pack
+     * @return `order`'s core fields, packed
+     * @throws IllegalArgumentException If a field does not fit its width
+     */
+    public static long pack(Order order, int unitTypeBits, int orderTypeBits, int provinceBits) {
+
+        long packed = ordinalOrNone(order.owner);
+        packed = appendField(packed, unitTypeBits, ordinalOrNone(order.unitType));
+        packed = appendField(packed, orderTypeBits, ordinalOrNone(order.orderType));
+        packed = appendField(packed, provinceBits, ordinalOrNone(order.pos0));
+        packed = appendField(packed, provinceBits, ordinalOrNone(order.pos1));
+        packed = appendField(packed, provinceBits, ordinalOrNone(order.pos2));
+        packed = (packed << 1) | (order.dislodged ? 1 : 0);
+        return packed;
+
+    }
+
+    /**
+     * Reverses `pack(...)` with the same field widths
+     * @param packed An Order packed by `pack(order, unitTypeBits, orderTypeBits, provinceBits)`
+     * @return A new (unresolved) Order
+     * @throws IllegalArgumentException If a field is out of range
+     */
+    public static Order unpack(long packed, int unitTypeBits, int orderTypeBits, int provinceBits) {
+
+        boolean dislodged = (packed & 1) != 0;
+        packed >>>= 1;
+        Province pos2 = valueOrNull(PROVINCES, packed & ((1L << provinceBits) - 1));
+        packed >>>= provinceBits;
+        Province pos1 = valueOrNull(PROVINCES, packed & ((1L << provinceBits) - 1));
+        packed >>>= provinceBits;
+        Province pos0 = valueOrNull(PROVINCES, packed & ((1L << provinceBits) - 1));
+        packed >>>= provinceBits;
+        OrderType orderType = valueOrNull(ORDER_TYPES, packed & ((1L << orderTypeBits) - 1));
+        packed >>>= orderTypeBits;
+        UnitType unitType = valueOrNull(UNIT_TYPES, packed & ((1L << unitTypeBits) - 1));
+        packed >>>= unitTypeBits;
+        Nation owner = valueOrNull(NATIONS, packed);
+
+        return new Order(owner, unitType, pos0, orderType, pos1, pos2, dislodged);
+
+    }
+
+    private static long appendField(long packed, int bits, int value) {
+        if (value >= (1 << bits))
+            throw new IllegalArgumentException(String.format("`%s::pack(...)`: value %d does not fit in %d bits",
+                    Orders.class.getSimpleName(), value, bits));
+        return (packed << bits) | value;
+    }
+
+    private static int ordinalOrNone(Enum<?> value) {
+        return (value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E> E valueOrNull(E[] values, long ordinalPlusOne) {
+        if (ordinalPlusOne > values.length)
+            throw new IllegalArgumentException(String.format("`%s::unpack(...)`: no %s with ordinal %d",
+                    Orders.class.getSimpleName(), values.getClass().getComponentType().getSimpleName(), ordinalPlusOne - 1));
+        return (ordinalPlusOne == 0 ? null : values[(int) ordinalPlusOne - 1]);
+    }
+
+    /**
+     * Computes the <i>canonical form</i> of a Collection of Orders: a new List sorted by `OrderComparator`.<br>
+     * Two Collections holding equal Orders (in any iteration order) always produce equal canonical forms.
+     * @param orders Collection of Orders
+     * @return A new, sorted List of the (same, uncloned) Orders in `orders`
+     */
+    public static List<Order> canonicalize(Collection<Order> orders) {
+
+        List<Order> canonical = new ArrayList<>(orders);
+        canonical.sort(new OrderComparator());
+        return canonical;
+
+    }
+
+
     public static Collection<Order> deepCopy(Collection<Order> orders) {
         // Default to List collection-type
         return deepCopy(List.copyOf(orders));
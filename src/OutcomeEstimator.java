@@ -0,0 +1,356 @@
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * `OutcomeEstimator` estimates, by Monte Carlo sampling, how likely Orders are to succeed given <i>probability distributions</i>
+ *      over (some of) the units' Orders -- e.g. our own Orders are fixed, and each opponent unit has a few weighted options<br><br>
+ *
+ * Each sample draws one Order per distributed unit, adjudicates the joint Order set, and tallies:<br>
+ *      ~ the success frequency (`verdict`) of every fixed & optional Order<br>
+ *      ~ the dislodgement frequency of every area<br><br>
+ *
+ * Sampling runs in <i>rounds</i> of `numWorkers` batches, in parallel. Batch `i` always draws from its own generator, seeded from
+ * (`seed`, `i`), and rounds are merged before the stopping check -- so results are identical for a given seed, regardless of thread scheduling.<br>
+ * Sampling stops once the 95% confidence interval of every tracked probability is narrower than +/- `targetHalfWidth`
+ * (normal approximation), or after exactly `maxSamples` samples (the last round's batches are shortened to fit).<br><br>
+ *
+ * Each worker allocates its Orders once, and re-fills them in place for every sample. A plain `Judge` is re-used too (`judge()` resets
+ * all of its state); any other Judge is built fresh per sample, since subclasses may keep state across `judge()` calls
+ * (e.g. `Referee`'s resolutions, which would otherwise accumulate over samples).
+ */
+public class OutcomeEstimator {
+
+
+    public static final double  Z_95                = 1.96;
+    public static final int     DEFAULT_BATCH_SIZE  = 256;
+    public static final int     DEFAULT_MAX_SAMPLES = 1 << 20;
+    public static final int     MIN_SAMPLES         = 1024;  // don't trust the normal approximation before this
+
+
+    /**
+     * A discrete probability distribution over the Orders of one unit
+     */
+    public static final class UnitDistribution {
+
+        private final List<Order>   options = new ArrayList<>();
+        private final List<Double>  weights = new ArrayList<>();
+        private double              totalWeight = 0;
+
+        /**
+         * Adds an option to this distribution (weights need not sum to 1; they are normalized)
+         * @param order Order option
+         * @param weight Relative likelihood of `order`
+         * @return This distribution
+         */
+        public UnitDistribution add(Order order, double weight) {
+
+            if (weight <= 0 || Double.isNaN(weight) || Double.isInfinite(weight))
+                throw new IllegalArgumentException(String.format("`%s::add(...)`: weight must be positive & finite (was %f): %s",
+                        this.getClass().getSimpleName(), weight, order));
+            if (!options.isEmpty() && !Province.equalsIgnoreCoast(options.get(0).pos0, order.pos0))
+                throw new IllegalArgumentException(String.format("`%s::add(...)`: all options must order the same unit (%s): %s",
+                        this.getClass().getSimpleName(), options.get(0).pos0, order));
+
+            options.add(order);
+            weights.add(weight);
+            totalWeight += weight;
+            return this;
+
+        }
+
+        public List<Order> getOptions() {
+            return Collections.unmodifiableList(options);
+        }
+
+        private double[] cumulative() {
+            double[] cumulative = new double[weights.size()];
+            double sum = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += weights.get(i) / totalWeight;
+                cumulative[i] = sum;
+            }
+            cumulative[cumulative.length - 1] = 1.0;  // (guard against rounding)
+            return cumulative;
+        }
+
+    }
+
+    /**
+     * Result of an estimation: frequencies over all samples taken
+     */
+    public static final class Estimate {
+
+        public final long       samples;
+        public final double     halfWidth;  // widest 95% CI half-width of any tracked probability
+
+        private final List<Order>   tracked;
+        private final long[]        successes;
+        private final long[]        dislodgements;
+
+        private Estimate(long samples, double halfWidth, List<Order> tracked, long[] successes, long[] dislodgements) {
+            this.samples = samples;
+            this.halfWidth = halfWidth;
+            this.tracked = tracked;
+            this.successes = successes;
+            this.dislodgements = dislodgements;
+        }
+
+        /**
+         * @param order A fixed Order, or an option of a `UnitDistribution` (the same object)
+         * @return Estimated probability that `order` succeeds, <i>given that it was ordered</i>
+         */
+        public double successProbability(Order order) {
+
+            for (int i = 0; i < tracked.size(); i++) {
+                if (tracked.get(i) == order)
+                    return successes[i] / (double) Math.max(1, timesOrdered(i));
+            }
+            throw new IllegalArgumentException(String.format("`%s::successProbability(...)`: Order was not part of the estimation: %s",
+                    this.getClass().getSimpleName(), order));
+
+        }
+
+        /**
+         * @param province Province (any coast of an area counts as the area)
+         * @return Estimated probability that the unit in `province` is dislodged
+         */
+        public double dislodgementProbability(Province province) {
+            return dislodgements[BoardState.area(province)] / (double) Math.max(1, samples);
+        }
+
+        // # of samples in which tracked Order `i` was drawn
+        private long timesOrdered(int i) {
+            return successes[tracked.size() + i];
+        }
+
+    }
+
+
+    private final Function<Collection<Order>, Judge>    judgeFactory;
+    private final long                                  seed;
+    private final int                                   numWorkers;
+    private final int                                   batchSize;
+
+
+    public OutcomeEstimator(long seed) {
+        this(Judge::new, seed, Math.max(1, Runtime.getRuntime().availableProcessors()), DEFAULT_BATCH_SIZE);
+    }
+
+    public OutcomeEstimator(Function<Collection<Order>, Judge> judgeFactory, long seed, int numWorkers, int batchSize) {
+
+        if (numWorkers <= 0 || batchSize <= 0)
+            throw new IllegalArgumentException(String.format("`%s`: numWorkers & batchSize must be positive (were %d, %d)",
+                    this.getClass().getSimpleName(), numWorkers, batchSize));
+
+        this.judgeFactory = judgeFactory;
+        this.seed = seed;
+        this.numWorkers = numWorkers;
+        this.batchSize = batchSize;
+
+    }
+
+
+    public Estimate estimate(Collection<Order> fixedOrders, Collection<UnitDistribution> distributions, double targetHalfWidth) {
+        return estimate(fixedOrders, distributions, targetHalfWidth, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Estimates success & dislodgement probabilities
+     * @param fixedOrders Orders that are always given
+     * @param distributions Distributions over the Orders of every other unit (one per unit)
+     * @param targetHalfWidth Target 95% CI half-width, e.g. 0.01 for +/- 1%
+     * @param maxSamples Upper bound on the # of samples
+     * @return The Estimate after stopping
+     */
+    public Estimate estimate(Collection<Order> fixedOrders, Collection<UnitDistribution> distributions,
+                             double targetHalfWidth, long maxSamples) {
+
+        List<UnitDistribution> units = new ArrayList<>(distributions);
+        for (UnitDistribution unit : units) {
+            if (unit.options.isEmpty())
+                throw new IllegalArgumentException(String.format("`%s::estimate(...)`: empty UnitDistribution",
+                        this.getClass().getSimpleName()));
+        }
+
+        // Tracked Orders: fixed Orders first, then every option in distribution order
+        List<Order> tracked = new ArrayList<>(fixedOrders);
+        int[] firstOption = new int[units.size()];
+        for (int i = 0; i < units.size(); i++) {
+            firstOption[i] = tracked.size();
+            tracked.addAll(units.get(i).options);
+        }
+
+        Worker[] workers = new Worker[numWorkers];
+        for (int w = 0; w < numWorkers; w++)
+            workers[w] = new Worker(fixedOrders, units, firstOption, tracked.size());
+
+        // [0, n): successes of tracked Order i; [n, 2n): # of samples where tracked Order i was drawn
+        long[] successes = new long[2 * tracked.size()];
+        long[] dislodgements = new long[Province.values().length];
+        long samples = 0;
+        double halfWidth = Double.POSITIVE_INFINITY;
+
+        for (int round = 0; samples < maxSamples && (samples < MIN_SAMPLES || halfWidth > targetHalfWidth); round++) {
+
+            final int firstBatch = round * numWorkers;
+            final int[] batchSamples = batchSizes(maxSamples - samples);
+            IntStream.range(0, numWorkers).parallel()
+                    .forEach(w -> workers[w].runBatch(Zobrist.mix64(seed + firstBatch + w), batchSamples[w]));
+
+            for (int w = 0; w < numWorkers; w++) {
+                for (int i = 0; i < successes.length; i++)
+                    successes[i] += workers[w].successes[i];
+                for (int i = 0; i < dislodgements.length; i++)
+                    dislodgements[i] += workers[w].dislodgements[i];
+                samples += batchSamples[w];
+            }
+
+            halfWidth = halfWidth(successes, dislodgements, tracked.size(), samples);
+
+        }
+
+        return new Estimate(samples, halfWidth, List.copyOf(tracked), successes, dislodgements);
+
+    }
+
+    // # of samples per worker this round: full batches, or `remaining` split as evenly as possible (so the total never overshoots)
+    private int[] batchSizes(long remaining) {
+
+        int total = (int) Math.min(remaining, (long) numWorkers * batchSize);
+        int[] sizes = new int[numWorkers];
+        for (int w = 0; w < numWorkers; w++)
+            sizes[w] = total / numWorkers + (w < total % numWorkers ? 1 : 0);
+        return sizes;
+
+    }
+
+    private static double halfWidth(long[] successes, long[] dislodgements, int numTracked, long samples) {
+
+        double widest = 0;
+        for (int i = 0; i < numTracked; i++) {
+            long n = successes[numTracked + i];
+            if (n > 0)
+                widest = Math.max(widest, halfWidth(successes[i] / (double) n, n));
+        }
+        for (long count : dislodgements)
+            widest = Math.max(widest, halfWidth(count / (double) samples, samples));
+        return widest;
+
+    }
+
+    private static double halfWidth(double p, long n) {
+        return Z_95 * Math.sqrt(p * (1 - p) / n);
+    }
+
+
+    /**
+     * Samples & adjudicates batches of joint Order sets, re-using the same Order objects & List (& a plain `Judge`) for every sample
+     */
+    private final class Worker {
+
+        private final List<UnitDistribution>    units;
+        private final double[][]                cumulatives;
+        private final int[]                     firstOption;
+        private final int                       numFixed;
+
+        private final List<Order>               fixedOrders;
+        private final List<Order>               orders;      // [fixed..., one slot per distributed unit...]
+        private final int[]                     trackedIndices;  // [slot] -> tracked index of the Order drawn this sample
+        private final Judge                     judge;       // (re-used only if a plain `Judge`)
+        private final boolean                   reuseJudge;
+
+        private final long[]                    successes;
+        private final long[]                    dislodgements = new long[Province.values().length];
+        private final boolean[]                 movedOut = new boolean[Province.values().length];
+        private final boolean[]                 attacked = new boolean[Province.values().length];
+
+        private Worker(Collection<Order> fixedOrders, List<UnitDistribution> units, int[] firstOption, int numTracked) {
+
+            this.units = units;
+            this.firstOption = firstOption;
+            this.fixedOrders = List.copyOf(fixedOrders);
+            this.numFixed = this.fixedOrders.size();
+
+            this.cumulatives = new double[units.size()][];
+            for (int i = 0; i < units.size(); i++)
+                cumulatives[i] = units.get(i).cumulative();
+
+            this.orders = new ArrayList<>();
+            for (Order order : this.fixedOrders)
+                orders.add(new Order(order));
+            for (UnitDistribution unit : units)
+                orders.add(new Order(unit.options.get(0)));
+
+            this.trackedIndices = new int[orders.size()];
+            for (int i = 0; i < numFixed; i++)
+                trackedIndices[i] = i;
+
+            this.judge = judgeFactory.apply(orders);
+            this.reuseJudge = (this.judge.getClass() == Judge.class);
+            this.successes = new long[2 * numTracked];
+
+        }
+
+        private void runBatch(long batchSeed, int batchSamples) {
+
+            Arrays.fill(successes, 0);
+            Arrays.fill(dislodgements, 0);
+            SplittableRandom random = new SplittableRandom(batchSeed);
+            int numTracked = successes.length / 2;
+
+            for (int sample = 0; sample < batchSamples; sample++) {
+
+                // re-fill the Orders in place (this also undoes any Szykman Holds from the previous sample)
+                for (int i = 0; i < numFixed; i++) {
+                    Order order = orders.get(i);
+                    order.assign(fixedOrders.get(i));
+                    order.wipeMetaInf();
+                }
+                for (int u = 0; u < units.size(); u++) {
+                    int option = draw(cumulatives[u], random.nextDouble());
+                    Order order = orders.get(numFixed + u);
+                    order.assign(units.get(u).options.get(option));
+                    order.wipeMetaInf();
+                    trackedIndices[numFixed + u] = firstOption[u] + option;
+                }
+
+                Judge judge = (reuseJudge ? this.judge : judgeFactory.apply(orders));
+                judge.orders = orders;  // (e.g. `Referee` replaces its Collection while judging)
+                judge.judge();
+                if (judge.orders != orders)
+                    ClusterJudge.merge(orders, judge.orders);
+
+                Arrays.fill(movedOut, false);
+                Arrays.fill(attacked, false);
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    int tracked = trackedIndices[i];
+                    successes[numTracked + tracked]++;
+                    if (order.verdict)
+                        successes[tracked]++;
+                    if (order.orderType == OrderType.MOVE && order.verdict) {
+                        movedOut[BoardState.area(order.pos0)] = true;
+                        attacked[BoardState.area(order.pos1)] = true;
+                    }
+                }
+                for (Order order : orders) {
+                    int area = BoardState.area(order.pos0);
+                    if (attacked[area] && !movedOut[area])
+                        dislodgements[area]++;
+                }
+
+            }
+
+        }
+
+        private static int draw(double[] cumulative, double roll) {
+            int option = 0;
+            while (roll >= cumulative[option])
+                option++;
+            return option;
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * `ParallelClusterJudge` is a `ClusterJudge` that resolves independent interaction clusters <i>concurrently</i>, on a small shared thread pool<br><br>
+ *
+ * Every cluster already gets its own sub-Judge -- i.e. its own resolver state (`cycle`, `recursionHits`, `uncertain`) -- so clusters
+ * share nothing but the (read-only) map data & the (thread-safe) `AdjudicationCache`, if any.<br>
+ * Clusters are packed into at most `POOL_SIZE` batches of similar total cost (largest-first), so that a turn with one expensive
+ * convoy paradox and twenty trivial Holds is still split sensibly; the calling thread resolves one batch itself.<br>
+ * The pool is a `ForkJoinPool`, so nesting is safe: a pool thread that waits for a batch (e.g. a `ParallelClusterJudge` judged from
+ * inside another's cluster, or from a caller's own tasks on this pool) runs queued batches itself instead of blocking on them.<br><br>
+ *
+ * Turns with a single cluster are resolved serially, without touching the pool.
+ */
+public class ParallelClusterJudge extends ClusterJudge {
+
+
+    public static final int POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    // (ForkJoinPool threads are daemons, so an idle pool never keeps the JVM alive)
+    private static final ForkJoinPool POOL = new ForkJoinPool(POOL_SIZE, pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("cluster-judge-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+
+    public ParallelClusterJudge() {
+        super();
+    }
+
+    public ParallelClusterJudge(Collection<Order> orders) {
+        super(orders);
+    }
+
+    public ParallelClusterJudge(Collection<Order> orders, AdjudicationCache cache) {
+        super(orders, cache);
+    }
+
+    public ParallelClusterJudge(Collection<Order> orders, Function<Collection<Order>, Judge> judgeFactory, AdjudicationCache cache) {
+        super(orders, judgeFactory, cache);
+    }
+
+
+    /**
+     * Definitively resolves `orders`, resolving independent interaction clusters in parallel
+     *
+     * @postcondition Every order in `orders` is definitively resolved and has a verdict
+     */
+    @Override
+    public void judge() {
+
+        List<List<Order>> clusters = OrderClusters.partition(this.orders);
+        if (clusters.size() < 2 || POOL_SIZE < 2) {
+            for (List<Order> cluster : clusters)
+                judgeCluster(cluster);
+            return;
+        }
+
+        List<List<List<Order>>> batches = batch(clusters, Math.min(POOL_SIZE, clusters.size()));
+
+        List<ForkJoinTask<?>> futures = new ArrayList<>();
+        for (int i = 1; i < batches.size(); i++) {
+            List<List<Order>> batch = batches.get(i);
+            futures.add(POOL.submit(() -> {
+                for (List<Order> cluster : batch)
+                    judgeCluster(cluster);
+            }));
+        }
+        for (List<Order> cluster : batches.get(0))
+            judgeCluster(cluster);
+
+        // (`get()` on a pool thread helps: it runs the batch itself if no other thread has taken it yet)
+        for (ForkJoinTask<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw new IllegalStateException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(String.format("`%s::judge()`: interrupted while resolving clusters",
+                        this.getClass().getSimpleName()), ex);
+            }
+        }
+
+    }
+
+    /**
+     * Greedily packs clusters into batches of similar estimated cost (largest cluster first, into the cheapest batch)<br>
+     * Resolution cost grows much faster than linearly in cluster size, so a cluster of n Orders is weighed as n^2
+     * @param clusters Clusters to pack
+     * @param numBatches # of batches to pack into
+     * @return A new List of (non-empty) batches
+     */
+    private static List<List<List<Order>>> batch(List<List<Order>> clusters, int numBatches) {
+
+        List<List<Order>> bySize = new ArrayList<>(clusters);
+        bySize.sort(Comparator.comparingInt((List<Order> cluster) -> cluster.size()).reversed());
+
+        List<List<List<Order>>> batches = new ArrayList<>();
+        long[] costs = new long[numBatches];
+        for (int i = 0; i < numBatches; i++)
+            batches.add(new ArrayList<>());
+
+        for (List<Order> cluster : bySize) {
+            int cheapest = 0;
+            for (int i = 1; i < numBatches; i++) {
+                if (costs[i] < costs[cheapest])
+                    cheapest = i;
+            }
+            batches.get(cheapest).add(cluster);
+            costs[cheapest] += (long) cluster.size() * cluster.size();
+        }
+
+        return batches;
+
+    }
+
+}
@@ -0,0 +1,275 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the DATC corpus in parallel -- one test case per task -- and reports what each case costs, instead of `TestCaseManager`'s eval dumps<br><br>
+ *
+ * Per test case, it records:<br>
+ *      ~ the score (verdicts matching the solution) -- as `TestCaseManager`, MODE 0 (i.e. with `Referee`) by default<br>
+ *      ~ wall time of the `judge()` call, on its worker thread<br>
+ *      ~ # of `resolve(...)` calls (`Judge::getResolveCalls()`), over all trials when refereeing<br>
+ *      ~ bytes allocated by its worker thread during the `judge()` call<br><br>
+ *
+ * Prints the scores, the costliest cases, and totals per category (6.A - 6.G); the full report, sorted by wall time (costliest first),
+ * can be written as CSV and/or JSON for diffing across runs.<br><br>
+ *
+ * Usage: `ParallelTestRunner [referee | judge] [# of threads] [--csv <file>] [--json <file>]`<br>
+ * <b>NOTE:</b> wall times of concurrent cases include contention with each other; run with 1 thread for clean per-case timings
+ * (resolve-call counts & allocation are unaffected). The first cases to run also pay for JIT warmup, so a cheap case can rank high.
+ */
+public class ParallelTestRunner {
+
+
+    public static final int MAX_CASES_SHOWN = 15;  // costliest cases printed
+
+
+    /**
+     * Measurements of one test case
+     */
+    public static final class CaseResult {
+
+        public final String name, category;
+        public final int    numOrders, score;
+        public final long   nanos, resolveCalls, allocatedBytes;  // (`allocatedBytes`: -1 if the JVM cannot measure it)
+
+        public CaseResult(String name, String category, int numOrders, int score, long nanos, long resolveCalls, long allocatedBytes) {
+            this.name = name;
+            this.category = category;
+            this.numOrders = numOrders;
+            this.score = score;
+            this.nanos = nanos;
+            this.resolveCalls = resolveCalls;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public boolean passed() {
+            return this.score == this.numOrders;
+        }
+
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        boolean referee = true;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        Path csv = null, json = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "referee" -> referee = true;
+                case "judge" -> referee = false;
+                case "--csv" -> csv = Paths.get(args[++i]);
+                case "--json" -> json = Paths.get(args[++i]);
+                default -> numThreads = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        List<TestCase> testCases = TestCaseLoader.load(Paths.get(DATCFileParser.TESTGAMES_DIR_PATH),
+                Paths.get(DATCFileParser.TESTGAMES_SOLUTIONS_DIR_PATH));
+        System.out.printf("Running %d test cases with %s, on %d thread(s)...\n\n", testCases.size(),
+                (referee ? "Referee (" + Referee.NUM_TRIALS_DEFAULT + " trials)" : "Judge"), numThreads);
+
+        long start = System.nanoTime();
+        List<CaseResult> results = run(testCases, referee, numThreads);
+        long wallNanos = System.nanoTime() - start;
+
+        // Scores
+        int casesPassed = 0, ordersPassed = 0, numOrders = 0;
+        for (CaseResult result : results) {
+            casesPassed += (result.passed() ? 1 : 0);
+            ordersPassed += result.score;
+            numOrders += result.numOrders;
+            if (!result.passed())
+                System.out.println(Constants.ANSI_RED + "FAILED!!\t" + result.name + Constants.ANSI_RESET);
+        }
+
+        // Costliest cases
+        List<CaseResult> sorted = sortedByCost(results);
+        System.out.printf("\n%-56s %10s %14s %12s\n", "costliest cases", "ms", "resolve calls", "alloc");
+        for (CaseResult result : sorted.subList(0, Math.min(MAX_CASES_SHOWN, sorted.size())))
+            printRow(result.name, result.nanos, result.resolveCalls, result.allocatedBytes);
+
+        // Per category
+        Map<String, long[]> categories = new TreeMap<>();  // category -> {nanos, resolve calls, bytes}
+        for (CaseResult result : results) {
+            long[] totals = categories.computeIfAbsent(result.category, key -> new long[3]);
+            totals[0] += result.nanos;
+            totals[1] += result.resolveCalls;
+            totals[2] = Benchmarks.addAllocated(totals[2], result.allocatedBytes);
+        }
+        System.out.printf("\n%-56s %10s %14s %12s\n", "categories", "ms", "resolve calls", "alloc");
+        for (Map.Entry<String, long[]> category : categories.entrySet())
+            printRow(category.getKey(), category.getValue()[0], category.getValue()[1], category.getValue()[2]);
+
+        System.out.println("\n----------------------------------------");
+        System.out.printf("TOTAL SCORE (by Test Cases):\t[%d/%d]\n", casesPassed, results.size());
+        System.out.printf("TOTAL SCORE (by Orders):\t\t[%d/%d]\n", ordersPassed, numOrders);
+        System.out.printf("WALL TIME:\t\t\t\t\t[%.1f ms]\n", wallNanos / 1e6);
+        System.out.println("----------------------------------------\n");
+
+        if (csv != null) {
+            Files.writeString(csv, toCsv(sorted));
+            System.out.printf("Wrote CSV report to [%s]\n", csv);
+        }
+        if (json != null) {
+            Files.writeString(json, toJson(sorted));
+            System.out.printf("Wrote JSON report to [%s]\n", json);
+        }
+        if (csv != null || json != null)
+            System.out.println();
+
+        Constants.printTimestamp();
+
+    }
+
+
+    /**
+     * Judges every test case on fresh copies of its Orders, one task per case
+     * @param testCases Test cases to run (with solutions, to be scored)
+     * @param referee Whether to use `Referee` (else, `Judge`)
+     * @param numThreads # of worker threads
+     * @return One result per test case, in the order of `testCases`
+     */
+    public static List<CaseResult> run(List<TestCase> testCases, boolean referee, int numThreads) {
+
+        if (numThreads < 1)
+            throw new IllegalArgumentException(String.format("`%s::run(...)`: # of threads must be positive (was %d)",
+                    ParallelTestRunner.class.getSimpleName(), numThreads));
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "test-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+
+            List<Future<CaseResult>> futures = new ArrayList<>(testCases.size());
+            for (TestCase testCase : testCases)
+                futures.add(pool.submit(() -> runCase(testCase, referee)));
+
+            List<CaseResult> results = new ArrayList<>(testCases.size());
+            for (Future<CaseResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof RuntimeException cause)
+                        throw cause;
+                    throw new IllegalStateException(ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(String.format("`%s::run(...)`: interrupted while running test cases",
+                            ParallelTestRunner.class.getSimpleName()), ex);
+                }
+            }
+            return results;
+
+        } finally {
+            pool.shutdownNow();
+        }
+
+    }
+
+    /**
+     * @return `results`, costliest (by wall time) first
+     */
+    public static List<CaseResult> sortedByCost(List<CaseResult> results) {
+        List<CaseResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingLong((CaseResult result) -> result.nanos).reversed());
+        return sorted;
+    }
+
+    public static String toCsv(List<CaseResult> results) {
+        StringBuilder csv = new StringBuilder("name,category,orders,score,passed,wall_us,resolve_calls,alloc_bytes\n");
+        for (CaseResult result : results) {
+            csv.append('"').append(result.name.replace("\"", "\"\"")).append('"').append(',')
+                    .append(result.category).append(',')
+                    .append(result.numOrders).append(',')
+                    .append(result.score).append(',')
+                    .append(result.passed()).append(',')
+                    .append(String.format(Locale.ROOT, "%.1f", result.nanos / 1e3)).append(',')
+                    .append(result.resolveCalls).append(',')
+                    .append(result.allocatedBytes).append('\n');
+        }
+        return csv.toString();
+    }
+
+    public static String toJson(List<CaseResult> results) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            CaseResult result = results.get(i);
+            json.append(String.format(Locale.ROOT, "  {\"name\": \"%s\", \"category\": \"%s\", \"orders\": %d, \"score\": %d, \"passed\": %b, " +
+                            "\"wall_us\": %.1f, \"resolve_calls\": %d, \"alloc_bytes\": %d}%s\n",
+                    escapeJson(result.name), escapeJson(result.category), result.numOrders, result.score, result.passed(),
+                    result.nanos / 1e3, result.resolveCalls, result.allocatedBytes, (i + 1 < results.size() ? "," : "")));
+        }
+        return json.append("]\n").toString();
+    }
+
+
+    private static CaseResult runCase(TestCase testCase, boolean referee) {
+
+        List<Order> orders = Orders.deepCopy(testCase.getOrders());
+        Judge judge = (referee ? new Referee(orders) : new Judge(orders));
+
+        long bytes0 = Benchmarks.allocatedBytes();
+        long start = System.nanoTime();
+        judge.judge();
+        long nanos = System.nanoTime() - start;
+        long allocatedBytes = Benchmarks.allocatedSince(bytes0);
+
+        // Score as `TestCaseReferee` does: conform the resolved Orders to the test case's order, then compare verdicts
+        List<Order> resolved = Orders.conformOrder(judge.getOrders(), orders);
+        List<boolean[]> expected = testCase.getExpectedFields();
+        int score = resolved.size();
+        if (expected != null) {
+            for (int i = 0; i < resolved.size(); i++) {
+                if (expected.get(i)[0] != resolved.get(i).verdict)
+                    score--;
+            }
+        }
+
+        return new CaseResult(testCase.getName(), category(testCase.getName()), orders.size(), score, nanos,
+                judge.getResolveCalls(), allocatedBytes);
+
+    }
+
+    // e.g. "6.A.01. MOVING TO AN AREA THAT IS NOT A NEIGHBOUR" -> "6.A"
+    private static String category(String name) {
+        int second = name.indexOf('.', name.indexOf('.') + 1);
+        return (second < 0 ? name : name.substring(0, second));
+    }
+
+    private static void printRow(String name, long nanos, long resolveCalls, long allocatedBytes) {
+        System.out.printf("%-56s %10.2f %14d %12s\n", (name.length() > 56 ? name.substring(0, 53) + "..." : name), nanos / 1e6,
+                resolveCalls, (allocatedBytes < 0 ? "n/a" : Benchmarks.formatBytes(allocatedBytes)));
+    }
+
+    private static String escapeJson(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    else
+                        escaped.append(c);
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+}
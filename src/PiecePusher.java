@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * The `PiecePusher` class holds a combination of:
@@ -13,11 +14,14 @@ import java.util.*;
 public class PiecePusher {
 
 
+    // Shared by all PiecePushers: (position hash ^ movement Orders hash ^ `Judge::variantKey()`) -> verdict bitset, indexed by area of `pos0`
+    protected static final TranspositionTable<long[]> TRANSPOSITIONS = new TranspositionTable<>();
+
     protected final Collection<Order>       movementPhaseOrders;  // MUST BE EXPLICITLY ASSIGNED VIA CONSTRUCTOR
     protected final Collection<Order>       retreatPhaseOrders;
 
-    protected       Map<Province,UnitType>  unitTypeMap  = null;
-    protected       Map<Province,Nation>    unitOwnerMap = null;
+    // Immutable: every `push()` replaces it with a new state, which shares all unchanged data with the old one
+    protected       BoardState              boardState = null;
 
 
     public PiecePusher(Collection<Order> movementPhaseOrders) {
@@ -32,88 +36,93 @@ public class PiecePusher {
         initialize(true);
     }
 
+    public PiecePusher(BoardState boardState, Collection<Order> movementPhaseOrders) {
+        this.movementPhaseOrders = movementPhaseOrders;
+        this.retreatPhaseOrders = new HashSet<>();
+        this.boardState = boardState;
+    }
+
     // constructor helper method
     private void initialize(boolean useRetreatsPos) {
-        this.unitTypeMap = new HashMap<>();
-        this.unitOwnerMap = new HashMap<>();
         Collection<Order> orders;
         if (useRetreatsPos)
             orders = retreatPhaseOrders;
         else
             orders = movementPhaseOrders;
-        for (Order order : orders) {
-            this.unitTypeMap.put(order.pos0, order.unitType);
-            this.unitOwnerMap.put(order.pos0, order.owner);
+        this.boardState = BoardState.fromOrders(orders);
+    }
+
+
+    public BoardState getBoardState() {
+        return boardState;
+    }
+
+
+    /**
+     * Adjudicates the movement phase Orders, unless this exact position (board + Orders) has been adjudicated before
+     * by an equivalent Judge (same `Judge::variantKey()`, e.g. a Referee with the same # of trials) -- in which case the stored verdicts
+     * are copied in, and no Judge is even built.<br><br>
+     *
+     * Only `verdict` & `resolved` are restored from the table; Szykman replacements made by a `Referee` are not reflected on the Orders.
+     *
+     * @param judgeFactory Creates the Judge for a Collection of Orders, e.g. `Judge::new` or `Referee::new`
+     * @return True if the verdicts came from the transposition table, false if a Judge was run
+     */
+    public boolean judge(Function<Collection<Order>, Judge> judgeFactory) {
+
+        // (the variant key comes from an empty probe Judge, as in `ClusterJudge` -- no Orders are copied unless we miss)
+        long key = boardState.zobristHash() ^ Zobrist.hashOrders(movementPhaseOrders) ^
+                   judgeFactory.apply(new ArrayList<>()).variantKey();
+
+        long[] verdicts = TRANSPOSITIONS.get(key);
+        boolean hit = (verdicts != null);
+        if (!hit) {
+            Judge judge = judgeFactory.apply(new ArrayList<>(movementPhaseOrders));
+            judge.judge();
+            verdicts = new long[(Province.values().length + 63) / 64];
+            for (Order order : judge.getOrders()) {
+                int area = BoardState.area(order.pos0);
+                if (order.verdict)
+                    verdicts[area >>> 6] |= (1L << area);
+            }
+            TRANSPOSITIONS.put(key, verdicts);
         }
+
+        for (Order order : movementPhaseOrders) {
+            int area = BoardState.area(order.pos0);
+            order.verdict = (verdicts[area >>> 6] & (1L << area)) != 0;
+            order.resolved = true;
+        }
+
+        return hit;
+
     }
 
 
     @SuppressWarnings("PointlessBooleanExpression")
     protected void push() {
 
-        Map<Province,UnitType> unitMap1 = new HashMap<>();
-        Map<Province,Nation>   unitMap2 = new HashMap<>();
-
         if (!retreatPhaseOrders.isEmpty()) {
 
+            BoardState.Editor editor = boardState.edit();
+
+            // Dislodged units are already off the board (the movement push put their attackers in their place);
+            // ... only successful retreats reappear on it. `pos0` must NOT be cleared -- it now holds the attacker
             for (Order retreatOrder : Orders.pruneForOrderType(OrderType.RETREAT, retreatPhaseOrders)) {
-                if (retreatOrder.verdict == true) {
-                    unitMap1.put(retreatOrder.pos1, retreatOrder.unitType);
-                    unitMap2.put(retreatOrder.pos1, retreatOrder.owner);
-                }
+                if (retreatOrder.verdict == true)
+                    editor.placeUnit(retreatOrder.pos1, retreatOrder.owner, retreatOrder.unitType);
             }
 
-            this.unitTypeMap.putAll(unitMap1);
-            this.unitOwnerMap.putAll(unitMap2);
+            this.boardState = editor.setPhase(boardState.year, Season.rotate(boardState.season, false)).build();
             return;
 
         }  // ELSE: below
 
-        Collection<Order> retreats = new ArrayList<>();
-        for (Order order : movementPhaseOrders) {
-
-            if (order.orderType == OrderType.MOVE) {
-                if (order.verdict == true) {
-                    unitMap1.put(order.pos1, order.unitType);
-                    unitMap2.put(order.pos1, order.owner);
-                } else {
-                    // TODO: Check for assailants (?)
-                    unitMap1.put(order.pos0, order.unitType);
-                    unitMap2.put(order.pos0, order.owner);
-                }
-            }
-
-            else if (order.orderType == OrderType.HOLD || order.orderType == OrderType.SUPPORT || order.orderType == OrderType.CONVOY) {
-                if (order.verdict == true) {
-                    unitMap1.put(order.pos0, order.unitType);
-                    unitMap2.put(order.pos0, order.owner);
-                } else {
-                    Collection<Order> assailants = Orders.locateUnitsMovingToPosition(order.pos0, movementPhaseOrders);
-                    boolean anySuccessfulAssailant = false;
-                    for (Order moveOrder : assailants) {
-                        if (moveOrder.verdict == true) {
-                            anySuccessfulAssailant = true;
-                            Order retreatOrder = new Order(
-                                    moveOrder.owner, moveOrder.unitType, moveOrder.pos1,
-                                    OrderType.RETREAT, null, null);
-                            retreatOrder.dislodged = true;
-                            retreats.add(retreatOrder);
-                            break;  // 2+ units cannot succeed to the same area
-                        }
-                    }
-                    if (!anySuccessfulAssailant) {
-                        unitMap1.put(order.pos0, order.unitType);
-                        unitMap2.put(order.pos0, order.owner);
-                    }
-                }
-            }
-
-        }
-
-        retreatPhaseOrders.addAll(retreats);  // no need to `.clear()`: is already empty
-        this.unitTypeMap.putAll(unitMap1);
-        this.unitOwnerMap.putAll(unitMap2);
+        // The movement phase Orders describe every unit on the board, so the placement is rebuilt from scratch
+        Transition transition = Transition.of(movementPhaseOrders);
+        retreatPhaseOrders.addAll(transition.getRetreats());  // no need to `.clear()`: is already empty
+        this.boardState = transition.apply(boardState);
 
     }
 
-}
\ No newline at end of file
+}
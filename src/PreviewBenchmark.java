@@ -0,0 +1,100 @@
+import java.util.*;
+
+/**
+ * Benchmarks the latency of order previews on full-board positions (34 units, random legal Orders):<br>
+ *      ~ <b>full</b>: a fresh `Judge::judge()` of the whole Order set, after one Order changed<br>
+ *      ~ <b>incremental</b>: `PreviewJudge::change(...)`, which only re-resolves the dependency cone of the change<br><br>
+ *
+ * Every incremental result is also checked against the full re-judge; any mismatch is reported.
+ */
+public class PreviewBenchmark {
+
+
+    public static final long SEED           = 2501L;
+    public static final int  NUM_POSITIONS  = 500;
+    public static final int  NUM_CHANGES    = 20;   // previews per position
+    public static final int  WARMUP_ROUNDS  = 2;
+
+
+    public static void main(String[] args) {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            boolean measured = (round == WARMUP_ROUNDS);
+            run(new SplittableRandom(SEED + round), measured);
+        }
+
+        Constants.printTimestamp();
+
+    }
+
+    private static void run(SplittableRandom random, boolean print) {
+
+        int samples = NUM_POSITIONS * NUM_CHANGES;
+        long[] fullNanos = new long[samples];
+        long[] incrementalNanos = new long[samples];
+        long fullBytes = 0, incrementalBytes = 0;
+        long coneSizes = 0;
+        int mismatches = 0;
+
+        int sample = 0;
+        for (int position = 0; position < NUM_POSITIONS; position++) {
+
+            List<Order> orders = RandomOrders.generate(RandomOrders.fullBoard(random), random);
+            PreviewJudge preview = new PreviewJudge(Orders.deepCopy(orders));
+            preview.judge();
+
+            for (int change = 0; change < NUM_CHANGES; change++, sample++) {
+
+                int index = random.nextInt(orders.size());
+                Order newOrder = RandomOrders.reorder(orders.get(index), orders, random);
+                orders.set(index, newOrder);
+
+                // full re-judge (copying is excluded from the measurement)
+                List<Order> fullOrders = Orders.deepCopy(orders);
+                Judge judge = new Judge(fullOrders);
+                long bytes0 = Benchmarks.allocatedBytes();
+                long start = System.nanoTime();
+                judge.judge();
+                fullNanos[sample] = System.nanoTime() - start;
+                fullBytes = Benchmarks.addAllocated(fullBytes, Benchmarks.allocatedSince(bytes0));
+
+                // incremental re-judge
+                Order previewOrder = new Order(newOrder);
+                bytes0 = Benchmarks.allocatedBytes();
+                start = System.nanoTime();
+                List<Order> cone = preview.change(previewOrder);
+                incrementalNanos[sample] = System.nanoTime() - start;
+                incrementalBytes = Benchmarks.addAllocated(incrementalBytes, Benchmarks.allocatedSince(bytes0));
+                coneSizes += cone.size();
+
+                List<Order> previewOrders = (List<Order>) preview.getOrders();
+                for (int i = 0; i < fullOrders.size(); i++) {
+                    if (fullOrders.get(i).verdict != previewOrders.get(i).verdict) {
+                        mismatches++;
+                        break;
+                    }
+                }
+
+            }
+
+        }
+
+        if (!print)
+            return;
+
+        System.out.printf("PREVIEW LATENCY (%d positions x %d changes, %d units/position):\n\n",
+                NUM_POSITIONS, NUM_CHANGES, 34);
+        Benchmarks.printLatencies("full `Judge::judge()`", fullNanos, fullBytes);
+        Benchmarks.printLatencies("incremental `PreviewJudge::change()`", incrementalNanos, incrementalBytes);
+        System.out.printf("\nMean dependency cone size:\t%.2f Orders\n", (double) coneSizes / samples);
+        if (mismatches == 0)
+            System.out.println("Incremental results identical to full re-judge:\t[" + samples + "/" + samples + "]");
+        else
+            System.out.println(Constants.ANSI_RED + "MISMATCHED PREVIEWS:\t[" + mismatches + "/" + samples + "]" + Constants.ANSI_RESET);
+
+    }
+
+}
@@ -0,0 +1,83 @@
+import java.util.*;
+
+/**
+ * `PreviewJudge` is a subclass of `Judge` for "what-if" previews: after one full `judge()`, single-Order changes are re-adjudicated incrementally.<br><br>
+ *
+ * An Order's verdict can only depend on Orders in its own interaction cluster (see `OrderClusters`), so
+ * `change(...)` re-resolves just that component -- the <i>dependency cone</i> of the change -- and leaves every other verdict untouched.<br><br>
+ *
+ * The cone is judged in the same relative order as in the full Order List, so the result is identical to a full re-judge.
+ */
+public class PreviewJudge extends Judge {
+
+
+    public PreviewJudge() {
+        super();
+    }
+
+    public PreviewJudge(Collection<Order> orders) {
+        // Keep our own List, so that Orders can be replaced in place (preserving iteration order)
+        super(new ArrayList<>(orders));
+    }
+
+
+    /**
+     * Replaces the Order of one unit, and re-resolves only the Orders whose verdicts could depend on the change<br><br>
+     *
+     * <i><u>Mutator function!</u></i> `newOrder` itself is inserted into `orders`, and every Order in the cone is re-resolved in place
+     *
+     * @param newOrder New Order for the unit at `newOrder.pos0`
+     * @return The Orders that were re-resolved (including `newOrder`)
+     * @precondition `judge()` has been called on the current Orders
+     */
+    public List<Order> change(Order newOrder) {
+
+        List<Order> ordersList = (List<Order>) this.orders;
+
+        int index = -1;
+        for (int i = 0; i < ordersList.size(); i++) {
+            if (Province.equalsIgnoreCoast(ordersList.get(i).pos0, newOrder.pos0)) {
+                index = i;
+                break;
+            }
+        }
+        if (index == -1)
+            throw new IllegalArgumentException(String.format("`%s::change(...)`: no unit at %s to re-order: %s",
+                    this.getClass().getSimpleName(), newOrder.pos0, newOrder));
+
+        Order oldOrder = ordersList.set(index, newOrder);
+
+        List<Order> cone = dependencyCone(ordersList, oldOrder, newOrder);
+        for (Order order : cone) {
+            // Szykman Holds are re-derived from scratch, like in a full re-judge
+            if (order.getSnapshot() != null)
+                order.restoreFromSnapshot();
+            order.wipeMetaInf();
+        }
+
+        // Re-use our own resolution machinery on the cone only
+        this.orders = cone;
+        try {
+            super.judge();
+        } finally {
+            this.orders = ordersList;
+        }
+
+        return cone;
+
+    }
+
+
+    /**
+     * Computes the dependency cone of a change: every Order (in `orders`, in List order)
+     * connected -- through shared areas -- to an area touched by `oldOrder` or `newOrder`
+     * @param orders List of Orders, already containing `newOrder` in place of `oldOrder`
+     * @param oldOrder Order being replaced
+     * @param newOrder Replacement Order
+     * @return A new List of the Orders in the dependency cone
+     */
+    public static List<Order> dependencyCone(List<Order> orders, Order oldOrder, Order newOrder) {
+        return OrderClusters.connectedTo(orders, List.of(oldOrder, newOrder));
+    }
+
+}
@@ -0,0 +1,248 @@
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Microbenchmarks of the primitives `Judge` is built on -- Province adjacency & coast checks, the `Orders.locate...(...)` searches,
+ * `Orders.orderIsValid(...)`, and `Convoys.drawConvoyPath(...)` -- to see what each call costs, & allocates<br><br>
+ *
+ * Inputs come from `NUM_POSITIONS` full-board-sized positions (34 units, random legal Orders, seeded by `SEED`) -- half of them
+ * `RandomOrders.fullBoard(...)` (every unit on a supply center), half `RandomOrders.randomBoard(...)` (fleets at sea, so with Convoys):
+ * Province pairs are taken from the Orders themselves (origin & target -- mostly adjacent) and from random pairs (mostly not);
+ * every search runs over its own position's Orders. Inputs are built before any measurement.<br><br>
+ *
+ * Each benchmark is one pass over all of its inputs; a pass is run `WARMUP_ITERATIONS` times unmeasured,
+ * then `MEASUREMENT_ITERATIONS` times measured (each repeating the pass for at least `ITERATION_MILLIS`).
+ * Results are per call: mean ns (& standard deviation across iterations), and allocated bytes.
+ */
+public class PrimitivesBenchmark {
+
+
+    public static final long SEED                   = 2501L;
+    public static final int  NUM_POSITIONS          = 200;
+    public static final int  FULL_BOARD_UNITS       = 34;
+    public static final int  WARMUP_ITERATIONS      = 5;
+    public static final int  MEASUREMENT_ITERATIONS = 10;
+    public static final int  ITERATION_MILLIS       = 100;
+
+    private static volatile long sink;  // (consumes results, so that no call can be optimized away)
+
+
+    public static void main(String[] args) {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        // Setup (unmeasured)
+        SplittableRandom random = new SplittableRandom(SEED);
+        Province[] provinces = Province.values();
+
+        List<List<Order>> positions = new ArrayList<>(NUM_POSITIONS);
+        for (int i = 0; i < NUM_POSITIONS; i++) {
+            BoardState board = (i % 2 == 0 ? RandomOrders.fullBoard(random) : RandomOrders.randomBoard(FULL_BOARD_UNITS, random));
+            positions.add(RandomOrders.generate(board, random));
+        }
+
+        // (Province pairs: half from Orders' origin -> target, half random)
+        List<Province> pairs = new ArrayList<>();
+        for (List<Order> orders : positions) {
+            for (Order order : orders) {
+                pairs.add(order.pos0);
+                pairs.add(order.pos1 != null ? order.pos1 : provinces[random.nextInt(provinces.length)]);
+                pairs.add(provinces[random.nextInt(provinces.length)]);
+                pairs.add(provinces[random.nextInt(provinces.length)]);
+            }
+        }
+        Province[] pos0s = new Province[pairs.size() / 2], pos1s = new Province[pairs.size() / 2];
+        for (int i = 0; i < pos0s.length; i++) {
+            pos0s[i] = pairs.get(2 * i);
+            pos1s[i] = pairs.get(2 * i + 1);
+        }
+
+        // (Orders, each with its position's Orders)
+        Inputs all = new Inputs(positions, order -> true);
+        Inputs moves = new Inputs(positions, order -> order.orderType == OrderType.MOVE);
+        Inputs movesOrHolds = new Inputs(positions, order -> order.orderType == OrderType.MOVE || order.orderType == OrderType.HOLD);
+        Inputs supportsOrConvoys = new Inputs(positions, order -> order.orderType == OrderType.SUPPORT || order.orderType == OrderType.CONVOY);
+        Set<Order> convoyed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<Order> orders : positions) {
+            for (Order order : orders) {
+                if (order.orderType == OrderType.CONVOY)
+                    convoyed.add(Orders.locateCorresponding(order, orders));
+            }
+        }
+        Inputs convoyedMoves = new Inputs(positions, convoyed::contains);
+        Province[] targets = new Province[all.size()];
+        for (int i = 0; i < targets.length; i++)
+            targets[i] = (all.orders[i].pos1 != null ? all.orders[i].pos1 : all.orders[i].pos0);
+
+        System.out.printf("%d positions: %d Orders (%d moves, %d supports & convoys, %d convoyed moves), %d Province pairs\n",
+                NUM_POSITIONS, all.size(), moves.size(), supportsOrConvoys.size(), convoyedMoves.size(), pos0s.length);
+        System.out.printf("%d warmup + %d measured iterations of %d ms per benchmark\n\n",
+                WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+        System.out.printf("%-44s %10s %10s %12s\n", "benchmark", "ns/call", "error", "alloc/call");
+
+        // Province
+        measure("Province::isAdjacentTo", pos0s.length, () -> {
+            long hits = 0;
+            for (int i = 0; i < pos0s.length; i++)
+                hits += (pos0s[i].isAdjacentTo(pos1s[i]) ? 1 : 0);
+            return hits;
+        });
+        measure("Province::isAdjacentToIgnoreSplitCoast", pos0s.length, () -> {
+            long hits = 0;
+            for (int i = 0; i < pos0s.length; i++)
+                hits += (pos0s[i].isAdjacentToIgnoreSplitCoast(pos1s[i]) ? 1 : 0);
+            return hits;
+        });
+        measure("Province.adjacentBySea", pos0s.length, () -> {
+            long hits = 0;
+            for (int i = 0; i < pos0s.length; i++)
+                hits += (Province.adjacentBySea(pos0s[i], pos1s[i]) ? 1 : 0);
+            return hits;
+        });
+        measure("Province.equalsIgnoreCoast", pos0s.length, () -> {
+            long hits = 0;
+            for (int i = 0; i < pos0s.length; i++)
+                hits += (Province.equalsIgnoreCoast(pos0s[i], pos1s[i]) ? 1 : 0);
+            return hits;
+        });
+        System.out.println();
+
+        // Orders
+        measure("Orders.orderIsValid", all.size(), () -> {
+            long hits = 0;
+            for (Order order : all.orders)
+                hits += (Orders.orderIsValid(order) ? 1 : 0);
+            return hits;
+        });
+        measure("Orders.locateUnitAtPosition", all.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < all.size(); i++)
+                hits += (Orders.locateUnitAtPosition(targets[i], all.contexts.get(i)) != null ? 1 : 0);
+            return hits;
+        });
+        measure("Orders.locateUnitsMovingToPosition", all.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < all.size(); i++)
+                hits += Orders.locateUnitsMovingToPosition(targets[i], all.contexts.get(i)).size();
+            return hits;
+        });
+        measure("Orders.locateHeadToHead", moves.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < moves.size(); i++)
+                hits += (Orders.locateHeadToHead(moves.orders[i], moves.contexts.get(i)) != null ? 1 : 0);
+            return hits;
+        });
+        measure("Orders.locateCorresponding (support/convoy)", supportsOrConvoys.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < supportsOrConvoys.size(); i++)
+                hits += (Orders.locateCorresponding(supportsOrConvoys.orders[i], supportsOrConvoys.contexts.get(i)) != null ? 1 : 0);
+            return hits;
+        });
+        measure("Orders.locateCorresponding (move/hold)", movesOrHolds.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < movesOrHolds.size(); i++)
+                hits += Orders.locateCorresponding(movesOrHolds.orders[i], true, movesOrHolds.contexts.get(i)).size();
+            return hits;
+        });
+        System.out.println();
+
+        // Convoys
+        measure("Convoys.drawConvoyPath (convoyed moves)", convoyedMoves.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < convoyedMoves.size(); i++)
+                hits += Convoys.drawConvoyPath(convoyedMoves.orders[i], convoyedMoves.contexts.get(i)).size();
+            return hits;
+        });
+        measure("Convoys.drawConvoyPath (all moves)", moves.size(), () -> {
+            long hits = 0;
+            for (int i = 0; i < moves.size(); i++)
+                hits += Convoys.drawConvoyPath(moves.orders[i], moves.contexts.get(i)).size();
+            return hits;
+        });
+        System.out.println();
+
+        Constants.printTimestamp();
+
+    }
+
+
+    /**
+     * Orders matching a filter, each alongside the Orders of its own position
+     */
+    private static final class Inputs {
+
+        final Order[]           orders;
+        final List<List<Order>> contexts;  // [i] -> the Orders of `orders[i]`'s position
+
+        Inputs(List<List<Order>> positions, Predicate<Order> filter) {
+            List<Order> orders = new ArrayList<>();
+            List<List<Order>> contexts = new ArrayList<>();
+            for (List<Order> position : positions) {
+                for (Order order : position) {
+                    if (filter.test(order)) {
+                        orders.add(order);
+                        contexts.add(position);
+                    }
+                }
+            }
+            this.orders = orders.toArray(new Order[0]);
+            this.contexts = contexts;
+        }
+
+        int size() {
+            return this.orders.length;
+        }
+
+    }
+
+
+    /**
+     * Runs & prints one benchmark
+     * @param name Name of the benchmark
+     * @param callsPerPass # of calls made by one `pass`
+     * @param pass One pass over all inputs; returns a value to consume
+     */
+    private static void measure(String name, int callsPerPass, LongSupplier pass) {
+
+        if (callsPerPass == 0) {
+            System.out.printf("%-44s %10s\n", name, "(no inputs)");
+            return;
+        }
+
+        double[] nanosPerCall = new double[MEASUREMENT_ITERATIONS];
+        long bytes = 0, calls = 0;
+        for (int iteration = -WARMUP_ITERATIONS; iteration < MEASUREMENT_ITERATIONS; iteration++) {
+
+            long iterationCalls = 0, consumed = 0;
+            long bytes0 = Benchmarks.allocatedBytes();
+            long start = System.nanoTime(), elapsed;
+            do {
+                consumed += pass.getAsLong();
+                iterationCalls += callsPerPass;
+            } while ((elapsed = System.nanoTime() - start) < ITERATION_MILLIS * 1_000_000L);
+            long allocated = Benchmarks.allocatedSince(bytes0);
+            sink += consumed;
+
+            if (iteration >= 0) {
+                nanosPerCall[iteration] = (double) elapsed / iterationCalls;
+                bytes = Benchmarks.addAllocated(bytes, allocated);
+                calls += iterationCalls;
+            }
+
+        }
+
+        double mean = 0;
+        for (double sample : nanosPerCall)
+            mean += sample / MEASUREMENT_ITERATIONS;
+        double variance = 0;
+        for (double sample : nanosPerCall)
+            variance += (sample - mean) * (sample - mean) / Math.max(1, MEASUREMENT_ITERATIONS - 1);
+
+        System.out.printf("%-44s %10.2f %10s %12s\n", name, mean, String.format("+- %.2f", Math.sqrt(variance)),
+                (bytes < 0 ? "n/a" : String.format("%.1f B", (double) bytes / calls)));
+
+    }
+
+}
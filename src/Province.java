@@ -1,4 +1,3 @@
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -98,8 +97,8 @@ public enum Province implements StrictState {
     BulEC("Bulgaria(ec)", Geography.COASTAL, true, null, 4, false, true, Province.Bul, "ec"),
     BulSC("Bulgaria(sc)", Geography.COASTAL, true, null, 4, false, true, Province.Bul, "sc"),
 
-    // The addition of the 'dummy' province Switzerland (`Province.Swi`), who borders nobody, is necessary because, for whatever reason, ...
-    // ... the compiler hates the last entry in the `adjacencyMap`, and replaces its key with the null reference...
+    // The 'dummy' province Switzerland (`Province.Swi`) borders nobody
+    // (It was once needed b/c the last constant's `adjacencyMap` key came out null -- the map was built while that constant was under construction)
     // (It is also nice to simply have a dummy province value, for posterity)
     // (Future commits may choose to alter the identity of the dummy province, if (e.g.) a variant chooses to include a passable `Province.Swi` tile)
     Swi("Switzerland", false, false);
@@ -107,11 +106,37 @@ public enum Province implements StrictState {
 
     public static final char SUFFIX_DELIM = '/';  // e.g. "Bul/ec"
 
-    // `adjacencyMap` and `aliasesMap` autopopulate at runtime, once for every new Province constant
+    // `adjacencyMap` (& its bitset form, `adjacencyBits`) populate exactly once, in the static block below
     private static Map<Province, Province[]>    adjacencyMap;
+    private static long[][]                     adjacencyBits;  // [ordinal] -> neighbors, one bit per ordinal
     private static Map<String, Province>        aliasesMap;  // TODO: Flesh out, add secondary names & common misspellings (in `populateAliasesMap()`)
 
 
+    // Static blocks run after every enum constant is constructed -- unlike the constructors, they can see all of the constants.
+    // (The adjacency map used to be rebuilt by every constructor, i.e. 80+ times, while later constants were still null)
+    static {
+
+        populateAdjacencyMap();
+
+        Province[] provinces = values();
+        adjacencyBits = new long[provinces.length][(provinces.length + 63) / 64];
+        for (Province province : provinces) {
+            for (Province neighbor : adjacencyMap.getOrDefault(province, new Province[0]))
+                adjacencyBits[province.ordinal()][neighbor.ordinal() >>> 6] |= (1L << neighbor.ordinal());
+        }
+
+        // Call `enforceStasis()` once on every Province constant
+        for (Province province : provinces) {
+            try {
+                province.enforceStasis();
+            } catch (IllegalStateException ex) {
+                System.err.println(ex.toString());
+            }
+        }
+
+    }
+
+
     public final String     fullName;
 
     public boolean          supplyCenter;
@@ -130,8 +155,6 @@ public enum Province implements StrictState {
     // Full constructor - modern
     private Province(String fullName, Geography geography, boolean supplyCenter, Nation owner, int coastId, boolean canal, boolean splitCoast, Province parent) {
 
-        populateAdjacencyMap();
-
         this.fullName = fullName;
         this.supplyCenter = supplyCenter;
         this.owner = owner;
@@ -149,13 +172,7 @@ public enum Province implements StrictState {
 
         this.parent = parent;
 
-        // Call `enforceStasis()` at the end of construction of all Province constants
-        // --> (All other constructors call this one...)
-        try {
-            enforceStasis();
-        } catch (IllegalStateException ex) {
-            System.err.println(ex.toString());
-        }
+        // `enforceStasis()` is called once all Province constants are constructed (see the static block)
 
     }
 
@@ -225,7 +242,7 @@ public enum Province implements StrictState {
      */
     public boolean isAdjacentTo(Province pos1) {
 
-        return (Arrays.asList(adjacencyMap.get(this)).contains(pos1));
+        return (pos1 != null && (adjacencyBits[this.ordinal()][pos1.ordinal() >>> 6] & (1L << pos1.ordinal())) != 0);
 
     }
 
@@ -419,9 +436,7 @@ public enum Province implements StrictState {
         adjacencyMap.put(Province.BulEC, new Province[]{Province.Rum, Province.BLA, Province.Con});
         adjacencyMap.put(Province.BulSC, new Province[]{Province.Con, Province.AEG, Province.Gre});
 
-        // The addition of Switzerland (`Province.Swi`) is necessary because, for whatever reason, ...
-        // ... the compiler hates the last entry in the map, and replaces its key with the null reference...
-        // (See the definition of `Province.Swi` for more info)
+        // (See the definition of `Province.Swi`)
         adjacencyMap.put(Province.Swi, new Province[]{});
 
         return adjacencyMap;
@@ -0,0 +1,170 @@
+import java.util.*;
+
+/**
+ * Abstract class of static utility functions re: <i>Province masks</i> -- sets of Provinces as bitsets (`long[]`, one bit per `Province.ordinal()`)<br><br>
+ *
+ * Precomputes, once, the adjacency mask of every (UnitType, Province) pair -- i.e. every Province a unit of that type, standing there, could legally move to --
+ * and the 'area' mask of every Province (itself, its parent, & all coasts of the parent). Set operations are then a few word-wise AND/OR/ANDNOTs.<br><br>
+ *
+ * Masks returned by `adjacency(...)` & `area(...)` are shared: <u>never mutate them</u>; every other function returns a new mask.
+ */
+public abstract class ProvinceMasks {
+
+
+    private static final Province[] PROVINCES   = Province.values();
+    public  static final int        WORDS       = (PROVINCES.length + 63) / 64;
+
+    private static final long[][][] ADJACENCY   = new long[UnitType.values().length][PROVINCES.length][];  // [UnitType][Province]
+    private static final long[][]   AREAS       = new long[PROVINCES.length][];  // [Province]
+
+    private static final boolean[]  HAS_SPLIT_COASTS = new boolean[PROVINCES.length];
+
+    static {
+
+        for (Province province : PROVINCES) {
+            if (province.parent != null)
+                HAS_SPLIT_COASTS[province.parent.ordinal()] = true;
+        }
+
+        Map<Province, Province[]> adjacencyMap = Province.getAdjacencyMapCopy();
+        for (UnitType unitType : UnitType.values()) {
+            for (Province pos0 : PROVINCES) {
+                long[] mask = empty();
+                Province[] neighbors = adjacencyMap.get(pos0);
+                if (neighbors != null && canOccupy(unitType, pos0)) {
+                    for (Province pos1 : neighbors) {
+                        Order move = new Order(Nation.values()[0], unitType, pos0, OrderType.MOVE, pos1);
+                        if (canOccupy(unitType, pos1) && Orders.orderIsValid(move) &&
+                                (unitType == UnitType.ARMY || Province.adjacentBySea(pos0, pos1)))
+                            set(mask, pos1);
+                    }
+                }
+                ADJACENCY[unitType.ordinal()][pos0.ordinal()] = mask;
+            }
+        }
+
+        for (Province province : PROVINCES) {
+            long[] mask = empty();
+            for (Province province2 : PROVINCES) {
+                if (Province.equalsIgnoreCoast(province, province2))
+                    set(mask, province2);
+            }
+            AREAS[province.ordinal()] = mask;
+        }
+
+    }
+
+
+    /**
+     * @return Whether a unit of type `unitType` can stand at exactly `location`:
+     *      armies on land (never on a named coast), fleets on seas & coasts (always on a named coast, where there are several)
+     */
+    public static boolean canOccupy(UnitType unitType, Province location) {
+
+        if (unitType == UnitType.ARMY)
+            return location.geography != Geography.WATER && location.coastType != CoastType.SPLIT;
+        return location.geography != Geography.INLAND && !HAS_SPLIT_COASTS[location.ordinal()];
+
+    }
+
+    public static long[] empty() {
+        return new long[WORDS];
+    }
+
+    /**
+     * @return Shared mask of every Province a unit of type `unitType` at `province` can move to (<u>do not mutate</u>)
+     */
+    public static long[] adjacency(UnitType unitType, Province province) {
+        return ADJACENCY[unitType.ordinal()][province.ordinal()];
+    }
+
+    /**
+     * @return Shared mask of every Province in the same area as `province`, e.g. {Spa, Spa/nc, Spa/sc} for any of the 3 (<u>do not mutate</u>)
+     */
+    public static long[] area(Province province) {
+        return AREAS[province.ordinal()];
+    }
+
+    public static void set(long[] mask, Province province) {
+        mask[province.ordinal() >>> 6] |= (1L << province.ordinal());
+    }
+
+    /**
+     * Adds every Province of `province`'s area to `mask`
+     */
+    public static void setArea(long[] mask, Province province) {
+        long[] area = AREAS[province.ordinal()];
+        for (int i = 0; i < WORDS; i++)
+            mask[i] |= area[i];
+    }
+
+    public static boolean contains(long[] mask, Province province) {
+        return (mask[province.ordinal() >>> 6] & (1L << province.ordinal())) != 0;
+    }
+
+    public static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param provinces Collection of Provinces
+     * @return A new mask of every Province in `provinces` (and only those -- coasts are not expanded)
+     */
+    public static long[] of(Collection<Province> provinces) {
+        long[] mask = empty();
+        for (Province province : provinces)
+            set(mask, province);
+        return mask;
+    }
+
+    /**
+     * @param provinces Collection of Provinces
+     * @return A new mask of every Province in the area of any Province in `provinces` (e.g. Spa --> {Spa, Spa/nc, Spa/sc})
+     */
+    public static long[] ofAreas(Collection<Province> provinces) {
+        long[] mask = empty();
+        for (Province province : provinces)
+            setArea(mask, province);
+        return mask;
+    }
+
+    /**
+     * @param mask Mask to expand
+     * @return A new List of the Provinces in `mask`, in ordinal order
+     */
+    public static List<Province> toProvinces(long[] mask) {
+        List<Province> provinces = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            for (long bits = mask[word]; bits != 0; bits &= bits - 1)
+                provinces.add(PROVINCES[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+        }
+        return provinces;
+    }
+
+
+    /**
+     * Computes the retreat options of a dislodged unit: `neighbors & ~occupied & ~embattled & ~attackerOrigin`
+     * @param unitType Type of the dislodged unit
+     * @param location Location of the dislodged unit
+     * @param occupied Mask of occupied Provinces
+     * @param embattled Mask of Provinces left empty by a standoff
+     * @param attackerOrigin Origin of the dislodging unit, if the unit may not retreat there (or null)
+     * @return A new mask of every Province the unit may retreat to
+     */
+    public static long[] retreatZones(UnitType unitType, Province location,
+                                      long[] occupied, long[] embattled, Province attackerOrigin) {
+
+        long[] neighbors = adjacency(unitType, location);
+        long[] origin = (attackerOrigin == null ? null : AREAS[attackerOrigin.ordinal()]);
+        long[] zones = new long[WORDS];
+        for (int i = 0; i < WORDS; i++)
+            zones[i] = neighbors[i] & ~occupied[i] & ~embattled[i] & (origin == null ? -1L : ~origin[i]);
+        return zones;
+
+    }
+
+}
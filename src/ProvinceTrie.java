@@ -0,0 +1,125 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A (read-only) trie of Province names -- for matching names straight out of a `CharSequence`, without cutting it into Strings<br><br>
+ *
+ * Nodes live in one flat `int[]` (`numSymbols` child slots per node), where symbols are the distinct characters of all names;
+ * a character that appears in no name matches nothing. Matching is case-sensitive.<br><br>
+ *
+ * `FULL_NAMES` holds every `Province.fullName` (e.g. "North Atlantic Ocean", "St Petersburg(nc)"), i.e. the names of `Province.populateAliasesMap()`;<br>
+ * `ABBREVIATIONS` holds every `Province.toString()` (e.g. "NAO", "StP/nc"), i.e. the names of Backstabbr notation.
+ */
+public final class ProvinceTrie {
+
+
+    public static final ProvinceTrie FULL_NAMES     = new ProvinceTrie(Province.populateAliasesMap());
+    public static final ProvinceTrie ABBREVIATIONS  = new ProvinceTrie(abbreviations());
+
+    public static final long NO_MATCH = -1L;
+
+    private static final Province[] PROVINCES = Province.values();
+    private static final int ROOT = 0;  // (no node has the root as a child, so child slot 0 means "none")
+
+    private final int[]     symbols = new int[128];  // [char] -> symbol + 1 (0: char appears in no name)
+    private final int       numSymbols;
+    private final int[]     children;   // [node * numSymbols + symbol] -> child node
+    private final int[]     terminals;  // [node] -> Province ordinal + 1 (0: no name ends here)
+
+
+    /**
+     * @param names Names -> the Province each names (names must be ASCII)
+     */
+    public ProvinceTrie(Map<String, Province> names) {
+
+        int numSymbols = 0, maxNodes = 1;
+        for (String name : names.keySet()) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c >= this.symbols.length)
+                    throw new IllegalArgumentException(String.format("`%s::new(...)`: non-ASCII name \"%s\"",
+                            ProvinceTrie.class.getSimpleName(), name));
+                if (this.symbols[c] == 0)
+                    this.symbols[c] = ++numSymbols;
+            }
+            maxNodes += name.length();
+        }
+        this.numSymbols = Math.max(numSymbols, 1);
+        this.children = new int[maxNodes * this.numSymbols];
+        this.terminals = new int[maxNodes];
+
+        int numNodes = 1;
+        for (Map.Entry<String, Province> entry : names.entrySet()) {
+            int node = ROOT;
+            String name = entry.getKey();
+            for (int i = 0; i < name.length(); i++) {
+                int slot = node * this.numSymbols + this.symbols[name.charAt(i)] - 1;
+                if (this.children[slot] == ROOT)
+                    this.children[slot] = numNodes++;
+                node = this.children[slot];
+            }
+            this.terminals[node] = entry.getValue().ordinal() + 1;
+        }
+
+    }
+
+
+    /**
+     * Matches the <i>longest</i> name starting at `start` that ends at a word boundary (whitespace, or `end`)
+     * -- e.g. "North Atlantic Ocean - Clyde" matches "North Atlantic Ocean", not "North"
+     * @param text Text to match in
+     * @param start Index of the first character of the name
+     * @param end Index past the last character to consider
+     * @return The match, packed (see `province(...)` & `end(...)`), or `NO_MATCH`
+     */
+    public long match(CharSequence text, int start, int end) {
+
+        long match = NO_MATCH;
+        int node = ROOT;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= this.symbols.length || this.symbols[c] == 0)
+                break;
+            node = this.children[node * this.numSymbols + this.symbols[c] - 1];
+            if (node == ROOT)
+                break;
+            if (this.terminals[node] != 0 && (i + 1 == end || Character.isWhitespace(text.charAt(i + 1))))
+                match = ((long) (this.terminals[node] - 1) << 32) | (i + 1);
+        }
+        return match;
+
+    }
+
+    /**
+     * @return The Province exactly named by `text`, or null
+     */
+    public Province lookup(CharSequence text) {
+        long match = this.match(text, 0, text.length());
+        return (match != NO_MATCH && end(match) == text.length() ? province(match) : null);
+    }
+
+    /**
+     * @param match A match from `match(...)` (not `NO_MATCH`)
+     * @return The matched Province
+     */
+    public static Province province(long match) {
+        return PROVINCES[(int) (match >>> 32)];
+    }
+
+    /**
+     * @param match A match from `match(...)` (not `NO_MATCH`)
+     * @return The index past the matched name
+     */
+    public static int end(long match) {
+        return (int) match;
+    }
+
+
+    private static Map<String, Province> abbreviations() {
+        Map<String, Province> abbreviations = new HashMap<>();
+        for (Province province : Province.values())
+            abbreviations.put(province.toString(), province);
+        return abbreviations;
+    }
+
+}
@@ -0,0 +1,242 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Abstract class of static utility functions for generating random (but legal) positions & Order sets -- for benchmarks, previews, and fuzzing<br><br>
+ *
+ * All functions take an explicit `SplittableRandom`, so that generated positions are reproducible from a seed.
+ */
+public abstract class RandomOrders {
+
+
+    private static final Map<Province, Province[]> ADJACENCY = Province.getAdjacencyMapCopy();
+    private static final Nation[] NATIONS = Nation.values();
+
+    // Likelihoods, in %: that a unit Moves, that a non-moving unit Supports, and that a non-moving fleet at sea Convoys
+    // (all other units Hold)
+    public static final int MOVE_PERCENT    = 50;
+    public static final int SUPPORT_PERCENT = 60;
+    public static final int CONVOY_PERCENT  = 40;
+
+
+    /**
+     * Generates a "full board": one unit on every supply center (34 units), owned by its home Nation (or a random Nation, if neutral)
+     * @param random Source of randomness
+     * @return A new `BoardState` with a unit on every supply center
+     */
+    public static BoardState fullBoard(SplittableRandom random) {
+
+        BoardState.Editor editor = BoardState.empty(Constants.STARTING_YEAR, Season.SPRING).edit();
+        for (Province province : Province.values()) {
+
+            if (!province.supplyCenter || province.parent != null)
+                continue;
+
+            Nation owner = (province.owner != null ? province.owner : NATIONS[random.nextInt(NATIONS.length)]);
+            List<Province> coasts = coastsOf(province);
+            if (!coasts.isEmpty() && random.nextBoolean())
+                editor.placeUnit(coasts.get(random.nextInt(coasts.size())), owner, UnitType.FLEET);
+            else
+                editor.placeUnit(province, owner, UnitType.ARMY);
+
+        }
+
+        return editor.build();
+
+    }
+
+    /**
+     * Generates a board with `numUnits` units on distinct random areas (armies on land, fleets at sea or on a coast), owned by random Nations
+     * -- e.g. to scale positions beyond the 34 units of a full board
+     * @param numUnits # of units, at most `maxUnits()`
+     * @param random Source of randomness
+     * @return A new `BoardState` with `numUnits` units
+     */
+    public static BoardState randomBoard(int numUnits, SplittableRandom random) {
+
+        List<Province> areas = new ArrayList<>();
+        for (Province province : Province.values()) {
+            if (province.parent == null && ADJACENCY.getOrDefault(province, new Province[0]).length > 0)
+                areas.add(province);
+        }
+        if (numUnits < 0 || numUnits > areas.size())
+            throw new IllegalArgumentException(String.format("`%s::randomBoard(...)`: # of units must be in [0, %d] (was %d)",
+                    RandomOrders.class.getSimpleName(), areas.size(), numUnits));
+
+        BoardState.Editor editor = BoardState.empty(Constants.STARTING_YEAR, Season.SPRING).edit();
+        for (int i = 0; i < numUnits; i++) {
+
+            int pick = i + random.nextInt(areas.size() - i);  // (partial Fisher-Yates shuffle)
+            Province area = areas.get(pick);
+            areas.set(pick, areas.get(i));
+            areas.set(i, area);
+
+            Nation owner = NATIONS[random.nextInt(NATIONS.length)];
+            List<Province> coasts = coastsOf(area);
+            if (area.geography == Geography.WATER)
+                editor.placeUnit(area, owner, UnitType.FLEET);
+            else if (!coasts.isEmpty() && random.nextBoolean())
+                editor.placeUnit(coasts.get(random.nextInt(coasts.size())), owner, UnitType.FLEET);
+            else
+                editor.placeUnit(area, owner, UnitType.ARMY);
+
+        }
+
+        return editor.build();
+
+    }
+
+    /**
+     * @return The most units `randomBoard(...)` can place (one per area of the standard map)
+     */
+    public static int maxUnits() {
+
+        int areas = 0;
+        for (Province province : Province.values()) {
+            if (province.parent == null && ADJACENCY.getOrDefault(province, new Province[0]).length > 0)
+                areas++;
+        }
+        return areas;
+
+    }
+
+    /**
+     * Generates a random, legal Order for every unit on a board: Moves to adjacent areas, Holds, Supports of
+     * neighboring units' Orders, and Convoys of adjacent armies (whose Orders are rewritten to match)
+     * @param state Board whose units to order
+     * @param random Source of randomness
+     * @return A new List of Orders, one per unit in `state`
+     */
+    public static List<Order> generate(BoardState state, SplittableRandom random) {
+
+        List<Order> orders = state.toOrders();  // all Holds, to start
+
+        // 1) Moves (& Holds)
+        for (Order order : orders) {
+            if (random.nextInt(100) < MOVE_PERCENT) {
+                List<Province> destinations = legalDestinations(order);
+                if (!destinations.isEmpty()) {
+                    order.orderType = OrderType.MOVE;
+                    order.pos1 = destinations.get(random.nextInt(destinations.size()));
+                }
+            }
+        }
+
+        // 2) Convoys -- fleets at sea pick an adjacent coastal army, and carry it to another coast adjacent to the fleet
+        for (Order order : orders) {
+            if (order.unitType != UnitType.FLEET || order.pos0.geography != Geography.WATER ||
+                    order.orderType == OrderType.MOVE || random.nextInt(100) >= CONVOY_PERCENT)
+                continue;
+            Order army = randomNeighbor(order, orders, random, o -> o.unitType == UnitType.ARMY && o.orderType != OrderType.SUPPORT);
+            if (army == null)
+                continue;
+            List<Province> landings = new ArrayList<>();
+            for (Province pos : ADJACENCY.get(order.pos0)) {
+                if (pos.geography != Geography.WATER && pos.coastType != CoastType.SPLIT && !Province.equalsIgnoreCoast(pos, army.pos0))
+                    landings.add(pos);
+            }
+            if (landings.isEmpty())
+                continue;
+            army.orderType = OrderType.MOVE;
+            army.pos1 = landings.get(random.nextInt(landings.size()));
+            order.orderType = OrderType.CONVOY;
+            order.pos1 = army.pos0;
+            order.pos2 = army.pos1;
+        }
+
+        // 3) Supports of neighbors' (final) Orders, where legal
+        for (Order order : orders) {
+            if (order.orderType != OrderType.HOLD || random.nextInt(100) >= SUPPORT_PERCENT)
+                continue;
+            Order supported = randomNeighbor(order, orders, random, o -> true);
+            if (supported == null)
+                continue;
+            Order support = new Order(order.owner, order.unitType, order.pos0, OrderType.SUPPORT, supported.pos0,
+                    (supported.orderType == OrderType.MOVE ? supported.pos1 : null));
+            if (Orders.orderIsValid(support)) {
+                order.orderType = OrderType.SUPPORT;
+                order.pos1 = support.pos1;
+                order.pos2 = support.pos2;
+            }
+        }
+
+        return orders;
+
+    }
+
+    /**
+     * Generates a random, legal replacement Order for a unit (i.e. a different Order for the same unit)
+     * @param order Current Order of the unit
+     * @param orders All Orders (for picking Support targets)
+     * @param random Source of randomness
+     * @return A new Order for the unit at `order.pos0`
+     */
+    public static Order reorder(Order order, Collection<Order> orders, SplittableRandom random) {
+
+        Order newOrder = new Order(order.owner, order.unitType, order.pos0, OrderType.HOLD);
+        if (random.nextInt(100) < MOVE_PERCENT) {
+            List<Province> destinations = legalDestinations(order);
+            if (!destinations.isEmpty()) {
+                newOrder.orderType = OrderType.MOVE;
+                newOrder.pos1 = destinations.get(random.nextInt(destinations.size()));
+            }
+        } else if (random.nextInt(100) < SUPPORT_PERCENT) {
+            Order supported = randomNeighbor(order, orders, random, o -> true);
+            if (supported != null) {
+                Order support = new Order(order.owner, order.unitType, order.pos0, OrderType.SUPPORT, supported.pos0,
+                        (supported.orderType == OrderType.MOVE ? supported.pos1 : null));
+                if (Orders.orderIsValid(support))
+                    newOrder = support;
+            }
+        }
+
+        return newOrder;
+
+    }
+
+
+    /**
+     * @param order Order of the unit to move
+     * @return All Provinces the unit at `order.pos0` can legally move to (by land, or by sea for fleets)
+     */
+    public static List<Province> legalDestinations(Order order) {
+
+        List<Province> destinations = new ArrayList<>();
+        for (Province pos : ADJACENCY.get(order.pos0)) {
+            Order move = new Order(order.owner, order.unitType, order.pos0, OrderType.MOVE, pos);
+            if (Orders.orderIsValid(move) &&
+                    (order.unitType == UnitType.ARMY || Province.adjacentBySea(order.pos0, pos)))
+                destinations.add(pos);
+        }
+        return destinations;
+
+    }
+
+    private static List<Province> coastsOf(Province province) {
+
+        List<Province> coasts = new ArrayList<>();
+        if (province.geography == Geography.COASTAL) {
+            coasts.add(province);
+            return coasts;
+        }
+        for (Province child : Province.values()) {
+            if (child.parent == province)
+                coasts.add(child);
+        }
+        return coasts;
+
+    }
+
+    private static Order randomNeighbor(Order order, Collection<Order> orders, SplittableRandom random,
+                                        Predicate<Order> filter) {
+
+        List<Order> neighbors = new ArrayList<>();
+        for (Order order2 : orders) {
+            if (order2 != order && order.pos0.isAdjacentToIgnoreSplitCoast(order2.pos0) && filter.test(order2))
+                neighbors.add(order2);
+        }
+        return (neighbors.isEmpty() ? null : neighbors.get(random.nextInt(neighbors.size())));
+
+    }
+
+}
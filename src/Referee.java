@@ -45,6 +45,19 @@ public class Referee extends Judge {
     }
 
 
+    @Override
+    protected long variantKey() {
+        // Resolutions can depend on the # of trials (i.e. how many permutations were explored)
+        return super.variantKey() ^ Zobrist.mix64(this.numTrials);
+    }
+
+    @Override
+    protected void applyResolution(Collection<Order> resolution) {
+        // Like `judge()`, replace `orders` with fresh clones rather than mutating the originals
+        this.orders = new HashSet<>(Orders.deepCopy(List.copyOf(resolution)));
+    }
+
+
     /**
      * Definitively meta-resolves the Collection of Orders `orders`, and applies Paradox-handling rules.<br><br>
      *
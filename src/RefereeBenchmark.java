@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Benchmark of `Referee::judge()` across trial counts -- for tuning `Referee.NUM_TRIALS_DEFAULT` on data<br><br>
+ *
+ * For each # of trials in `TRIAL_COUNTS` (or the counts given as arguments), every DATC test case is refereed
+ * `WARMUP_CALLS` times unmeasured, then (at least `MIN_CALLS` times) for `MEASUREMENT_MILLIS` measured. Per call, it records:<br>
+ *      ~ time & allocated bytes (setup -- parsing, & the `Orders.deepCopy(...)` each call needs -- is excluded)<br>
+ *      ~ the # of distinct resolutions found (`Referee.resolutions`)<br>
+ *      ~ whether every verdict matched the test case's solution<br><br>
+ *
+ * Results are printed per paradox case (`PARADOX_CASES`: 6.E.11, 6.F.14 - 6.F.24), and summed up per class (paradox & non-paradox).
+ * Trials are shuffled with an unseeded `Collections.shuffle(...)`, so resolution counts & accuracy are themselves samples.
+ */
+public class RefereeBenchmark {
+
+
+    public static final int[]       TRIAL_COUNTS        = {1, 50, 300, 2500};
+    public static final int         WARMUP_CALLS        = 2;
+    public static final int         MIN_CALLS           = 3;
+    public static final int         MEASUREMENT_MILLIS  = 100;
+
+    public static final Set<String> PARADOX_CASES       = Set.of("6.E.11",
+            "6.F.14", "6.F.15", "6.F.16", "6.F.17", "6.F.18", "6.F.19", "6.F.20", "6.F.21", "6.F.22", "6.F.23", "6.F.24");
+
+    private static volatile int sink;  // (consumes verdicts, so that no refereeing can be optimized away)
+
+
+    /**
+     * Measurements of one test case at one # of trials
+     */
+    private static final class Row {
+
+        final String    name;
+        final int       numTrials, calls;
+        final double    nanosPerCall, bytesPerCall;
+        final double    meanResolutions;
+        final int       maxResolutions;
+        final double    accuracy;  // share of calls whose verdicts all matched the solution (NaN: no solution)
+
+        Row(String name, int numTrials, int calls, double nanosPerCall, double bytesPerCall,
+            double meanResolutions, int maxResolutions, double accuracy) {
+            this.name = name;
+            this.numTrials = numTrials;
+            this.calls = calls;
+            this.nanosPerCall = nanosPerCall;
+            this.bytesPerCall = bytesPerCall;
+            this.meanResolutions = meanResolutions;
+            this.maxResolutions = maxResolutions;
+            this.accuracy = accuracy;
+        }
+
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        int[] trialCounts = TRIAL_COUNTS;
+        if (args.length > 0)
+            trialCounts = Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        // Setup (unmeasured)
+        List<TestCase> testCases = TestCaseLoader.load(Paths.get(DATCFileParser.TESTGAMES_DIR_PATH),
+                Paths.get(DATCFileParser.TESTGAMES_SOLUTIONS_DIR_PATH));
+        System.out.printf("%d test cases (%d paradox); trials: %s\n\n", testCases.size(),
+                testCases.stream().filter(testCase -> isParadox(testCase.getName())).count(), Arrays.toString(trialCounts));
+
+        printHeader();
+        for (int numTrials : trialCounts) {
+
+            List<Row> paradoxRows = new ArrayList<>(), otherRows = new ArrayList<>();
+            for (TestCase testCase : testCases) {
+                Row row = measure(testCase, numTrials);
+                if (isParadox(testCase.getName())) {
+                    paradoxRows.add(row);
+                    printRow(row);
+                } else
+                    otherRows.add(row);
+            }
+
+            printRow(sum("paradox", numTrials, paradoxRows));
+            printRow(sum("non-paradox", numTrials, otherRows));
+            System.out.println();
+
+        }
+
+        Constants.printTimestamp();
+
+    }
+
+
+    private static Row measure(TestCase testCase, int numTrials) {
+
+        List<Order> orders = testCase.getOrders();
+        List<boolean[]> expected = testCase.getExpectedFields();
+
+        long nanos = 0, bytes = 0;
+        int calls = 0, resolutions = 0, maxResolutions = 0, correctCalls = 0;
+        for (int call = -WARMUP_CALLS; call < MIN_CALLS || nanos < MEASUREMENT_MILLIS * 1_000_000L; call++) {
+
+            List<Order> copy = Orders.deepCopy(orders);
+            Referee referee = new Referee(copy, numTrials);
+
+            long bytes0 = Benchmarks.allocatedBytes();
+            long start = System.nanoTime();
+            referee.judge();
+            long elapsed = System.nanoTime() - start;
+            long allocated = Benchmarks.allocatedSince(bytes0);
+
+            List<Order> resolved = Orders.conformOrder(referee.getOrders(), copy);
+            boolean correct = true;
+            int verdicts = 0;
+            for (int i = 0; i < resolved.size(); i++) {
+                verdicts += (resolved.get(i).verdict ? 1 : 0);
+                if (expected != null && expected.get(i)[0] != resolved.get(i).verdict)
+                    correct = false;
+            }
+            sink += verdicts;
+
+            if (call >= 0) {
+                nanos += elapsed;
+                bytes = Benchmarks.addAllocated(bytes, allocated);
+                calls++;
+                resolutions += referee.resolutions.size();
+                maxResolutions = Math.max(maxResolutions, referee.resolutions.size());
+                correctCalls += (correct ? 1 : 0);
+            }
+
+        }
+
+        return new Row(testCase.getName(), numTrials, calls, (double) nanos / calls, (bytes < 0 ? -1 : (double) bytes / calls),
+                (double) resolutions / calls, maxResolutions, (expected == null ? Double.NaN : (double) correctCalls / calls));
+
+    }
+
+    // One call of a class referees every case in it once; resolutions & accuracy are averaged over its cases
+    private static Row sum(String name, int numTrials, List<Row> rows) {
+        double nanos = 0, bytes = 0, resolutions = 0, accuracy = 0;
+        int maxResolutions = 0, solved = 0;
+        for (Row row : rows) {
+            nanos += row.nanosPerCall;
+            bytes = (row.bytesPerCall < 0 || bytes < 0 ? -1 : bytes + row.bytesPerCall);
+            resolutions += row.meanResolutions / rows.size();
+            maxResolutions = Math.max(maxResolutions, row.maxResolutions);
+            if (!Double.isNaN(row.accuracy)) {
+                accuracy += row.accuracy;
+                solved++;
+            }
+        }
+        return new Row(name + " (" + rows.size() + " cases)", numTrials, 0, nanos, bytes, resolutions, maxResolutions,
+                (solved == 0 ? Double.NaN : accuracy / solved));
+    }
+
+    private static boolean isParadox(String name) {
+        return name.length() >= 6 && PARADOX_CASES.contains(name.substring(0, 6));
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-48s %7s %6s %12s %12s %12s %10s\n", "benchmark", "trials", "calls", "us/call", "alloc/call",
+                "resolutions", "correct");
+    }
+
+    private static void printRow(Row row) {
+        String name = (row.name.length() > 48 ? row.name.substring(0, 45) + "..." : row.name);
+        System.out.printf("%-48s %7d %6s %12.1f %12s %12s %10s\n", name, row.numTrials, (row.calls == 0 ? "" : row.calls),
+                row.nanosPerCall / 1000, (row.bytesPerCall < 0 ? "n/a" : Benchmarks.formatBytes(Math.round(row.bytesPerCall))),
+                String.format("%.2f (%d)", row.meanResolutions, row.maxResolutions),
+                (Double.isNaN(row.accuracy) ? "n/a" : String.format("%.1f%%", 100 * row.accuracy)));
+    }
+
+}
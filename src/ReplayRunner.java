@@ -0,0 +1,308 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Re-adjudicates every phase of a `GameArchive` and diffs the new verdicts against the recorded ones -- a regression check after
+ * changes to the adjudicator, and a macro-benchmark (phases & Orders per second, over real histories)<br><br>
+ *
+ * The calling thread streams the archive in batches of `BATCH_SIZE` records (`GameArchive::readRange(...)`, one read per batch);
+ * a pool of worker threads re-judges them, each phase on fresh, unresolved copies of its Orders. At most 2 batches per worker are in flight,
+ * so memory stays flat however large the archive is.<br><br>
+ *
+ * Usage: `ReplayRunner [archive dir] [judge | referee] [# of threads]`, or `ReplayRunner [archive dir] --generate [# of games]`
+ * to fill an archive with random full-board games (`GENERATED_YEARS` years each, adjudicated by `Judge`).
+ * A generated phase `Judge` threw on is kept, unadjudicated (see `GameArchive::append(...)`); replay re-judges it, and reports if it no longer throws.<br>
+ * <b>NOTE:</b> `Judge` is not fully deterministic on paradoxical positions (its guess order follows hash order), so a handful of
+ * mismatches can show up even without code changes; `Referee` settles those by majority.
+ */
+public class ReplayRunner {
+
+
+    public static final String  DEFAULT_ARCHIVE_DIR     = "archive/";
+    public static final int     BATCH_SIZE              = 256;  // records per read & per task
+    public static final int     MAX_MISMATCHES_SHOWN    = 20;
+    public static final int     REFEREE_TRIALS          = 50;   // per phase, in `referee` mode
+
+    public static final long    GENERATOR_SEED          = 2501L;
+    public static final int     GENERATED_GAMES         = 1000;
+    public static final int     GENERATED_YEARS         = 10;
+
+
+    /**
+     * Totals of one replay
+     */
+    public static final class Result {
+
+        public final long           phases, orders;
+        public final long           mismatchedPhases, mismatchedOrders;
+        public final long           errors;  // phases whose re-adjudication threw
+        public final long           recordedErrors;  // phases recorded unadjudicated (their original adjudication threw)
+        public final long           nanos;
+        public final List<String>   mismatches;  // (the first `MAX_MISMATCHES_SHOWN`)
+
+        public Result(long phases, long orders, long mismatchedPhases, long mismatchedOrders, long errors, long recordedErrors,
+                      long nanos, List<String> mismatches) {
+            this.phases = phases;
+            this.orders = orders;
+            this.mismatchedPhases = mismatchedPhases;
+            this.mismatchedOrders = mismatchedOrders;
+            this.errors = errors;
+            this.recordedErrors = recordedErrors;
+            this.nanos = nanos;
+            this.mismatches = mismatches;
+        }
+
+        public double phasesPerSecond() {
+            return this.phases / (this.nanos / 1e9);
+        }
+
+        public double ordersPerSecond() {
+            return this.orders / (this.nanos / 1e9);
+        }
+
+    }
+
+
+    public static void main(String[] args) throws IOException {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        Path directory = Paths.get(args.length > 0 ? args[0] : DEFAULT_ARCHIVE_DIR);
+        try (GameArchive archive = GameArchive.open(directory)) {
+
+            if (args.length > 1 && args[1].equals("--generate")) {
+                int numGames = (args.length > 2 ? Integer.parseInt(args[2]) : GENERATED_GAMES);
+                long start = System.nanoTime();
+                int numPhases = generate(archive, numGames, new SplittableRandom(GENERATOR_SEED));
+                System.out.printf("Generated %d phases (%d games) into [%s] in %.1f s\n\n", numPhases, numGames, directory,
+                        (System.nanoTime() - start) / 1e9);
+                Constants.printTimestamp();
+                return;
+            }
+
+            boolean referee = (args.length > 1 && args[1].equals("referee"));
+            int numThreads = (args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors());
+            Function<List<Order>, Judge> judgeFactory = (referee ? orders -> new Referee(orders, REFEREE_TRIALS) : Judge::new);
+
+            System.out.printf("Replaying %d phases from [%s] with %s, on %d thread(s)...\n\n", archive.size(), directory,
+                    (referee ? "Referee (" + REFEREE_TRIALS + " trials)" : "Judge"), numThreads);
+            Result result = replay(archive, judgeFactory, numThreads);
+
+            for (String mismatch : result.mismatches)
+                System.out.println(Constants.ANSI_RED + mismatch + Constants.ANSI_RESET);
+            if (!result.mismatches.isEmpty())
+                System.out.println();
+            System.out.printf("phases:     %d (%d mismatched, %d errors; %d recorded as errors)\n", result.phases, result.mismatchedPhases,
+                    result.errors, result.recordedErrors);
+            System.out.printf("orders:     %d (%d mismatched)\n", result.orders, result.mismatchedOrders);
+            System.out.printf("time:       %.2f s\n", result.nanos / 1e9);
+            System.out.printf("throughput: %.0f phases/s, %.0f orders/s\n\n", result.phasesPerSecond(), result.ordersPerSecond());
+
+        }
+
+        Constants.printTimestamp();
+
+    }
+
+
+    /**
+     * Re-adjudicates every phase of `archive`, and compares each Order's new verdict with its recorded one
+     * @param archive Archive to replay
+     * @param judgeFactory Makes the Judge for a phase's (fresh) Orders, e.g. `Judge::new`
+     * @param numThreads # of worker threads
+     * @return The totals of the replay
+     */
+    public static Result replay(GameArchive archive, Function<List<Order>, Judge> judgeFactory, int numThreads) throws IOException {
+
+        if (numThreads < 1)
+            throw new IllegalArgumentException(String.format("`%s::replay(...)`: # of threads must be positive (was %d)",
+                    ReplayRunner.class.getSimpleName(), numThreads));
+
+        LongAdder phases = new LongAdder(), orders = new LongAdder();
+        LongAdder mismatchedPhases = new LongAdder(), mismatchedOrders = new LongAdder(), errors = new LongAdder(), recordedErrors = new LongAdder();
+        List<String> mismatches = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(2 * numThreads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try {
+
+            int size = archive.size();
+            for (int from = 0; from < size; from += BATCH_SIZE) {
+
+                List<GameArchive.Record> batch = archive.readRange(from, Math.min(from + BATCH_SIZE, size));
+                inFlight.acquireUninterruptibly();
+                futures.add(pool.submit(() -> {
+                    try {
+                        for (GameArchive.Record record : batch)
+                            replayPhase(record, judgeFactory, phases, orders, mismatchedPhases, mismatchedOrders, errors, recordedErrors, mismatches);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+
+                // (Settle finished batches as we go, so the List stays short & failures surface early)
+                for (Iterator<Future<?>> it = futures.iterator(); it.hasNext(); ) {
+                    Future<?> future = it.next();
+                    if (future.isDone()) {
+                        await(future);
+                        it.remove();
+                    }
+                }
+
+            }
+
+            for (Future<?> future : futures)
+                await(future);
+
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new Result(phases.sum(), orders.sum(), mismatchedPhases.sum(), mismatchedOrders.sum(), errors.sum(), recordedErrors.sum(),
+                System.nanoTime() - start, new ArrayList<>(mismatches));
+
+    }
+
+    /**
+     * Fills `archive` with random games: each starts from a full board, and plays `GENERATED_YEARS` years of random legal Orders
+     * (Spring & Fall, no retreats or builds -- dislodged units are simply removed).
+     * Phases are recorded as generated -- not as `Judge` may have rewritten them (e.g. Convoys forced to Hold) -- with the judged verdicts.
+     * A phase `Judge` throws on is appended unadjudicated, as generated, and the board carries over unchanged.
+     * @param archive Archive to append to (games are numbered from `GameArchive::nextGame()`, so repeated runs do not collide)
+     * @param numGames # of games
+     * @param random Source of randomness
+     * @return # of phases appended
+     */
+    public static int generate(GameArchive archive, int numGames, SplittableRandom random) throws IOException {
+
+        int firstGame = archive.nextGame();
+        int numPhases = 0;
+        for (int game = firstGame; game < firstGame + numGames; game++) {
+
+            BoardState board = RandomOrders.fullBoard(random);
+            for (int year = Constants.STARTING_YEAR; year < Constants.STARTING_YEAR + GENERATED_YEARS; year++) {
+                for (Season season : new Season[]{Season.SPRING, Season.FALL}) {
+
+                    board = board.edit().setPhase(year, season).build();
+                    List<Order> generated = RandomOrders.generate(board, random);
+                    List<Order> orders = Orders.deepCopy(generated);  // (`Judge` may rewrite Orders, e.g. Convoys to Holds)
+                    try {
+                        new Judge(orders).judge();
+                    } catch (RuntimeException | StackOverflowError ex) {
+                        // A position `Judge` cannot settle -- record it as such, and keep the board
+                        archive.append(game, year, season, false, generated, board);
+                        numPhases++;
+                        continue;
+                    }
+
+                    // Record the Orders as given, not as judged (`Judge` may have rewritten some) -- with their judged verdicts, by area
+                    Order[] judged = new Order[Province.values().length];
+                    for (Order order : orders)
+                        judged[BoardState.area(order.pos0)] = order;
+                    for (Order order : generated)
+                        order.verdict = judged[BoardState.area(order.pos0)].verdict;
+
+                    BoardState result = Transition.of(orders).apply(board);
+                    archive.append(game, year, season, true, generated, result);
+                    numPhases++;
+
+                    board = result.edit().setPhase(year, season).build();
+                    if (season == Season.FALL)
+                        board = board.edit().captureSupplyCenters().build();
+
+                }
+            }
+
+        }
+        archive.flush();
+        return numPhases;
+
+    }
+
+
+    private static void replayPhase(GameArchive.Record record, Function<List<Order>, Judge> judgeFactory,
+                                    LongAdder phases, LongAdder orders, LongAdder mismatchedPhases, LongAdder mismatchedOrders,
+                                    LongAdder errors, LongAdder recordedErrors, List<String> mismatches) {
+
+        List<Order> recorded = record.phase.orders;
+        List<Order> fresh = new ArrayList<>(recorded.size());
+        for (Order order : recorded)
+            fresh.add(new Order(order.owner, order.unitType, order.pos0, order.orderType, order.pos1, order.pos2, order.dislodged));
+
+        phases.increment();
+        orders.add(recorded.size());
+        if (!record.phase.adjudicated)
+            recordedErrors.increment();
+        Judge judge = judgeFactory.apply(fresh);
+        try {
+            judge.judge();
+        } catch (RuntimeException | StackOverflowError ex) {
+            errors.increment();
+            report(mismatches, String.format("game %d, %s %d: re-adjudication threw %s", record.game, record.phase.season,
+                    record.phase.year, ex));
+            return;
+        }
+
+        // A phase recorded as an error has no verdicts to compare against -- but it settling now is worth knowing
+        if (!record.phase.adjudicated) {
+            report(mismatches, String.format("game %d, %s %d: recorded as an error, now adjudicates", record.game, record.phase.season,
+                    record.phase.year));
+            return;
+        }
+
+        // Match resolved Orders to recorded ones by unit (i.e. area) -- `Referee` swaps in new, unordered Collections of Orders
+        Order[] resolved = new Order[Province.values().length];
+        for (Order order : judge.getOrders())
+            resolved[BoardState.area(order.pos0)] = order;
+
+        int numMismatched = 0;
+        for (Order order : recorded) {
+            Order now = resolved[BoardState.area(order.pos0)];
+            if (now == null || now.verdict != order.verdict) {
+                numMismatched++;
+                report(mismatches, String.format("game %d, %s %d: %s was %b, now %s", record.game, record.phase.season,
+                        record.phase.year, order, order.verdict, (now == null ? "missing" : now.verdict)));
+            }
+        }
+        if (numMismatched > 0) {
+            mismatchedPhases.increment();
+            mismatchedOrders.add(numMismatched);
+        }
+
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("`%s::replay(...)`: interrupted while replaying",
+                    ReplayRunner.class.getSimpleName()), ex);
+        }
+    }
+
+    private static void report(List<String> mismatches, String mismatch) {
+        synchronized (mismatches) {
+            if (mismatches.size() < MAX_MISMATCHES_SHOWN)
+                mismatches.add(mismatch);
+        }
+    }
+
+}
@@ -10,6 +10,11 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
     protected final Collection<Province>    occupiedAreas;
     protected final Collection<Province>    embattledAreas;
     protected       Collection<Order>       movementPhaseOrdersCopy = null;
+    protected       Transition              transition = null;  // of `movementPhaseOrdersCopy`, once computed
+
+    // `occupiedAreas` & `embattledAreas` as Province masks (see `ProvinceMasks`), rebuilt at the start of every `judge()`
+    protected       long[]                  occupiedMask = null;
+    protected       long[]                  embattledMask = null;
 
 
     public RetreatsJudge() {
@@ -40,10 +45,10 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
     public RetreatsJudge(Judge movementJudge) {
         super();
         this.movementPhaseOrdersCopy = List.copyOf(movementJudge.orders);
-        // Direct assignment is technically unnecessary for below 2 func calls, ...
-        // ... but allows for `occAreas` and `embAreas` to remain `final`
-        this.occupiedAreas = this.generateOccupiedAreas(movementPhaseOrdersCopy);
-        this.embattledAreas = this.generateEmbattledAreas(movementPhaseOrdersCopy);
+        // One pass over the movement Orders yields both areas sets, the dislodging Moves, & the RETREAT Orders
+        this.transition = Transition.of(movementPhaseOrdersCopy);
+        this.occupiedAreas = new HashSet<>(transition.occupiedAreas());
+        this.embattledAreas = new HashSet<>(transition.embattledAreas());
     }
 
 
@@ -59,6 +64,9 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
             this.generateEmbattledAreas(movementPhaseOrdersCopy);
         }
 
+        this.occupiedMask = ProvinceMasks.ofAreas(occupiedAreas);
+        this.embattledMask = ProvinceMasks.ofAreas(embattledAreas);
+
         for (Order order : orders) {
             order.verdict = adjudicate(order, true);
             order.resolved = true;
@@ -116,8 +124,8 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
                                  Collection<Province> occupiedAreas, Collection<Province> embattledAreas,
                                  Order dislodgingMove, Collection<Order> movementPhaseOrders) {
 
-        return (generateRetreatZones(retreatOrder, occupiedAreas, embattledAreas, dislodgingMove, movementPhaseOrders)
-                .isEmpty());
+        return ProvinceMasks.isEmpty(
+                retreatZoneMask(retreatOrder, occupiedAreas, embattledAreas, dislodgingMove, movementPhaseOrders));
 
     }
 
@@ -125,40 +133,51 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
                                                         Collection<Province> occupiedAreas, Collection<Province> embattledAreas,
                                                         Order dislodgingMove, Collection<Order> movementPhaseOrders) {
 
+        return new HashSet<>(ProvinceMasks.toProvinces(
+                retreatZoneMask(retreatOrder, occupiedAreas, embattledAreas, dislodgingMove, movementPhaseOrders)));
+
+    }
+
+    /**
+     * Computes the retreat options of a dislodged unit as a Province mask: `neighbors & ~occupied & ~embattled & ~attackerOrigin`
+     *      (see `ProvinceMasks.retreatZones(...)`)
+     */
+    protected long[] retreatZoneMask(Order retreatOrder,
+                                     Collection<Province> occupiedAreas, Collection<Province> embattledAreas,
+                                     Order dislodgingMove, Collection<Order> movementPhaseOrders) {
+
         if (retreatOrder.orderType != OrderType.RETREAT)
             throw new IllegalArgumentException(String.format("`static %s::suffocated(...)` called on non-Retreat Order: %s",
                     this.getClass().getSimpleName(), retreatOrder));
 
-        Province[] neighbors = Province.getAdjacencyMapCopy().get(retreatOrder.pos0);
-        Collection<Province> retreatZones = new HashSet<>(List.of(neighbors));
-
-        for (Province neighbor : neighbors) {
-            if (occupiedAreas.contains(neighbor) || embattledAreas.contains(neighbor))
-                retreatZones.remove(neighbor);
-        }
-
-        if (dislodgingMove == null)
-            return retreatZones;
-
-        if (movementPhaseOrders == null) {
-            if (dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1))
-                retreatZones.remove(dislodgingMove.pos0);
-        } else {
-            if (Orders.adjacentMatchingConvoyFleetExists(dislodgingMove, movementPhaseOrders) &&
-                    dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1) &&
-                    dislodgingMove.suppressH2HAdjudication) {
-                // We can infer the dislodging move 'swapped' from the above conditions
-                // Do nothing (ATM)
-            }
-            // No convoy swap, but maybe a non-adjacent Convoy
-            // So, only remove the source of `dislodgingMove` if it has only traveled 1 square
-            // (There is no such thing as a convoyed retreat)
-            else if (dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1)) {
-                retreatZones.remove(dislodgingMove.pos0);
+        // Re-use this Judge's masks when given its own areas
+        long[] occupied = (occupiedAreas == this.occupiedAreas && occupiedMask != null ?
+                occupiedMask : ProvinceMasks.ofAreas(occupiedAreas));
+        long[] embattled = (embattledAreas == this.embattledAreas && embattledMask != null ?
+                embattledMask : ProvinceMasks.ofAreas(embattledAreas));
+
+        Province attackerOrigin = null;
+        if (dislodgingMove != null) {
+            if (movementPhaseOrders == null) {
+                if (dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1))
+                    attackerOrigin = dislodgingMove.pos0;
+            } else {
+                if (Orders.adjacentMatchingConvoyFleetExists(dislodgingMove, movementPhaseOrders) &&
+                        dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1) &&
+                        dislodgingMove.suppressH2HAdjudication) {
+                    // We can infer the dislodging move 'swapped' from the above conditions
+                    // Do nothing (ATM)
+                }
+                // No convoy swap, but maybe a non-adjacent Convoy
+                // So, only exclude the source of `dislodgingMove` if it has only traveled 1 square
+                // (There is no such thing as a convoyed retreat)
+                else if (dislodgingMove.pos0.isAdjacentTo(dislodgingMove.pos1)) {
+                    attackerOrigin = dislodgingMove.pos0;
+                }
             }
         }
 
-        return retreatZones;
+        return ProvinceMasks.retreatZones(retreatOrder.unitType, retreatOrder.pos0, occupied, embattled, attackerOrigin);
 
     }
 
@@ -181,6 +200,9 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
     @SuppressWarnings("PointlessBooleanExpression")
     protected Order locateDislodgingMove(Order retreatOrder, Collection<Order> movementPhaseOrders) {
 
+        if (transition != null && movementPhaseOrders == movementPhaseOrdersCopy)
+            return transition.dislodgingMove(retreatOrder.pos0);
+
         for (Order moveOrder : Orders.pruneForOrderType(OrderType.MOVE, movementPhaseOrders)) {
             if (Province.equalsIgnoreCoast(moveOrder.pos1, retreatOrder.pos0) &&
                 (moveOrder.resolved && moveOrder.verdict == true)) {
@@ -192,36 +214,9 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
 
     }
 
-    @SuppressWarnings("PointlessBooleanExpression")
     protected Collection<Province> generateOccupiedAreas(Collection<Order> movementPhaseOrders) {
 
-        Collection<Province> occupiedAreas = new HashSet<>();
-
-        for (Order order : movementPhaseOrders) {
-
-            if (order.dislodged)  // Dislodged by a MOVE Order --> a successful MOVE Order must be at `pos0`
-                occupiedAreas.add(order.pos0);
-            else if (order.orderType == OrderType.MOVE) {
-                if (order.resolved && order.verdict == true)
-                    occupiedAreas.add(order.pos1);
-            } else if (order.orderType == OrderType.HOLD) {
-                if (order.resolved && order.verdict == true)
-                    occupiedAreas.add(order.pos0);
-            } else if (order.orderType == OrderType.SUPPORT ||
-                       order.orderType == OrderType.CONVOY) {
-                Collection<Order> assailants = Orders.locateUnitsMovingToPosition(order.pos0, movementPhaseOrders);
-                boolean anySuccessfulAssailant = false;
-                for (Order moveOrder : assailants) {
-                    if (moveOrder.resolved && moveOrder.verdict == true) {
-                        anySuccessfulAssailant = true;
-                        break;
-                    }
-                }
-                if (anySuccessfulAssailant)
-                    occupiedAreas.add(order.pos0);
-            }
-
-        }
+        Collection<Province> occupiedAreas = transitionOf(movementPhaseOrders).occupiedAreas();
 
         this.occupiedAreas.clear();
         this.occupiedAreas.addAll(occupiedAreas);
@@ -229,21 +224,9 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
 
     }
 
-    @SuppressWarnings("PointlessBooleanExpression")
     protected Collection<Province> generateEmbattledAreas(Collection<Order> movementPhaseOrders) {
 
-        Collection<Province> embattledAreas = new HashSet<>();
-
-        Collection<Order> moveOrders = Orders.pruneForOrderType(OrderType.MOVE, movementPhaseOrders);
-        for (Order order : moveOrders) {
-            if ((order.verdict == false && order.resolved) &&
-                 super.pathSuccessful(order, true, movementPhaseOrders)) {
-                // Check for / distinguish between "squashed" Head-to-Head attacks vs. bounces in provinces
-                Order headToHead = Orders.locateHeadToHead(order, moveOrders);
-                if (headToHead == null)
-                    embattledAreas.add(order.pos1);
-            }
-        }
+        Collection<Province> embattledAreas = transitionOf(movementPhaseOrders).embattledAreas();
 
         this.embattledAreas.clear();
         this.embattledAreas.addAll(embattledAreas);
@@ -251,6 +234,16 @@ public class RetreatsJudge extends Judge implements HomogeneousState {
 
     }
 
+    private Transition transitionOf(Collection<Order> movementPhaseOrders) {
+
+        if (movementPhaseOrders != movementPhaseOrdersCopy)
+            return Transition.of(movementPhaseOrders);
+        if (transition == null)
+            transition = Transition.of(movementPhaseOrders);
+        return transition;
+
+    }
+
 
     @Override
     public void enforceStasis() throws IllegalStateException {
@@ -0,0 +1,116 @@
+import java.util.*;
+
+/**
+ * Benchmarks how adjudication scales in unit count on the standard map (from 8 units to 50, past a full board's 34),
+ * and reports the growth exponent between consecutive sizes (see `Benchmarks.growthExponent(...)`):<br>
+ *      ~ `Judge::judge()` of random legal Order sets<br>
+ *      ~ `Convoys.drawConvoyPath(...)`, for every convoyed Move<br>
+ *      ~ `Referee::judge()`, with `REFEREE_TRIALS` permutations<br><br>
+ *
+ * Any adjudication that throws aborts the run (with the seed & position it failed on) -- a crash here is a `Judge` bug, not a data point.<br>
+ * Unit counts stop at 50, below a known `Judge` defect: past ~50 units, some random positions make `Judge::resolve(...)` throw
+ * (by 64 units: an IllegalArgumentException from the cycle bookkeeping's `subList(...)`), and with ~75
+ * (one unit per area) the backup rule can recurse without end. Those need an adjudicator fix, which is out of this benchmark's scope.<br><br>
+ *
+ * <b>NOTE:</b> this does <u>not</u> answer how adjudication scales in <i>map size</i>. `Judge`, `Convoys` & `Referee` are bound to
+ * `Province`, so they cannot run on synthetic maps until adjudication works on `GameMap` ids -- until then, `MapScalingBenchmark`
+ * measures the map tooling only.
+ */
+public class ScalingBenchmark {
+
+
+    public static final long    SEED                = 2501L;
+    public static final int[]   UNIT_COUNTS         = {8, 16, 34, 42, 50};
+    public static final int     NUM_POSITIONS       = 2000;  // per unit count
+    public static final int     NUM_REFEREE_POSITIONS = 20;
+    public static final int     REFEREE_TRIALS      = 50;
+
+
+    public static void main(String[] args) {
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        runUnitCounts(true);  // (warmup)
+        runUnitCounts(false);
+
+        Constants.printTimestamp();
+
+    }
+
+
+    private static void runUnitCounts(boolean warmup) {
+
+        if (!warmup)
+            System.out.printf("%-8s %14s %14s %14s %14s %14s\n", "units", "Judge (us)", "alloc/judge", "convoy (us)", "Referee (ms)",
+                    "exponent");
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        double previousUnits = 0, previousJudge = 0;
+        for (int numUnits : UNIT_COUNTS) {
+
+            int numPositions = (warmup ? NUM_POSITIONS / 4 : NUM_POSITIONS);
+            long[] judgeNanos = new long[numPositions];
+            long judgeBytes = 0, convoyNanos = 0, numConvoys = 0;
+
+            for (int i = 0; i < numPositions; i++) {
+
+                List<Order> orders = RandomOrders.generate(RandomOrders.randomBoard(numUnits, random), random);
+
+                for (Order order : orders) {
+                    if (order.orderType == OrderType.MOVE && !order.pos0.isAdjacentTo(order.pos1)) {
+                        long start = System.nanoTime();
+                        Convoys.drawConvoyPath(order, orders);
+                        convoyNanos += System.nanoTime() - start;
+                        numConvoys++;
+                    }
+                }
+
+                Judge judge = new Judge(orders);
+                long bytes0 = Benchmarks.allocatedBytes();
+                long start = System.nanoTime();
+                judge(judge, numUnits, i);
+                judgeNanos[i] = System.nanoTime() - start;
+                judgeBytes = Benchmarks.addAllocated(judgeBytes, Benchmarks.allocatedSince(bytes0));
+
+            }
+
+            long refereeNanos = 0;
+            int numRefereePositions = (warmup ? 2 : NUM_REFEREE_POSITIONS);
+            for (int i = 0; i < numRefereePositions; i++) {
+                List<Order> orders = RandomOrders.generate(RandomOrders.randomBoard(numUnits, random), random);
+                long start = System.nanoTime();
+                judge(new Referee(orders, REFEREE_TRIALS), numUnits, i);
+                refereeNanos += System.nanoTime() - start;
+            }
+
+            if (warmup)
+                continue;
+
+            Arrays.sort(judgeNanos);
+            double judgeMicros = Benchmarks.percentile(judgeNanos, 50) / 1000.0;
+            System.out.printf("%-8d %14.1f %14s %14s %14.2f %14s\n", numUnits, judgeMicros,
+                    (judgeBytes < 0 ? "n/a" : Benchmarks.formatBytes(judgeBytes / numPositions)),
+                    (numConvoys == 0 ? "n/a" : String.format("%.2f", convoyNanos / 1000.0 / numConvoys)),
+                    refereeNanos / 1e6 / numRefereePositions,
+                    Benchmarks.growthExponent(previousUnits, previousJudge, numUnits, judgeMicros));
+            previousUnits = numUnits;
+            previousJudge = judgeMicros;
+
+        }
+        if (!warmup)
+            System.out.println("(Judge: p50; exponent: of Judge time vs. # of units)\n");
+
+    }
+
+    // Adjudicates, naming the position on failure -- the run is seeded (`SEED`), so a rerun reaches the same position
+    private static void judge(Judge judge, int numUnits, int position) {
+        try {
+            judge.judge();
+        } catch (RuntimeException | StackOverflowError ex) {
+            throw new IllegalStateException(String.format("`%s::judge(...)`: %s threw on position #%d of %d units (seed %d)",
+                    ScalingBenchmark.class.getSimpleName(), judge.getClass().getSimpleName(), position, numUnits, SEED), ex);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Benchmarks cold-start latency, i.e. <i>time-to-first-adjudication</i> -- what the CLI & short-lived batch jobs pay on every run<br><br>
+ *
+ * Every trial launches a fresh child JVM (same `java` & classpath), which times, in order:<br>
+ *      ~ class initialization of `Province` (constants, adjacency tables, `enforceStasis()`)<br>
+ *      ~ class initialization of `ProvinceMasks`<br>
+ *      ~ loading the standard map definition (`GameMap.load(...)`, through its compiled artifact)<br>
+ *      ~ the first `Judge::judge()` of a full-board position (34 units, random legal Orders)<br>
+ * and reports its JVM uptime once the first verdicts are in. The parent also times each child from launch to exit.
+ */
+public class StartupBenchmark {
+
+
+    public static final long    SEED        = 2501L;
+    public static final int     NUM_TRIALS  = 10;
+
+    private static final String CHILD_FLAG      = "--child";
+    private static final String RESULT_PREFIX   = "STARTUP";
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length > 0 && args[0].equals(CHILD_FLAG)) {
+            runChild();
+            return;
+        }
+
+        System.out.println();
+        Constants.printTimestamp();
+
+        int trials = (args.length > 0 ? Integer.parseInt(args[0]) : NUM_TRIALS);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+
+        String[] names = {"Province init", "ProvinceMasks init", "GameMap.load (standard)", "first Judge::judge()", "JVM uptime @ first verdict", "process launch -> exit"};
+        long[][] nanos = new long[names.length][trials];
+
+        for (int trial = 0; trial < trials; trial++) {
+
+            long start = System.nanoTime();
+            Process child = new ProcessBuilder(java, "-cp", classpath, StartupBenchmark.class.getName(), CHILD_FLAG)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+            String result = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()))) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.startsWith(RESULT_PREFIX))
+                        result = line;
+                }
+            }
+            if (child.waitFor() != 0 || result == null)
+                throw new IllegalStateException(String.format("`%s`: trial %d failed (exit code %d)",
+                        StartupBenchmark.class.getSimpleName(), trial, child.exitValue()));
+            nanos[names.length - 1][trial] = System.nanoTime() - start;
+
+            String[] fields = result.split(" ");
+            for (int i = 0; i < names.length - 1; i++)
+                nanos[i][trial] = Long.parseLong(fields[i + 1]);
+
+        }
+
+        for (int i = 0; i < names.length; i++)
+            Benchmarks.printLatencies(names[i], nanos[i], -1);
+
+        Constants.printTimestamp();
+
+    }
+
+    // Runs in the child JVM: everything here is cold
+    private static void runChild() throws IOException {
+
+        long t0 = System.nanoTime();
+        Province[] provinces = Province.values();
+        long t1 = System.nanoTime();
+        ProvinceMasks.adjacency(UnitType.ARMY, provinces[0]);
+        long t2 = System.nanoTime();
+        Path standardMap = Paths.get(GameMap.STANDARD_MAP_PATH);
+        if (Files.isRegularFile(standardMap))
+            GameMap.load(standardMap);
+        long t3 = System.nanoTime();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Order> orders = RandomOrders.generate(RandomOrders.fullBoard(random), random);
+        new Judge(orders).judge();
+        long t4 = System.nanoTime();
+        long uptimeNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+
+        System.out.printf("%s %d %d %d %d %d\n", RESULT_PREFIX, t1 - t0, t2 - t1, t3 - t2, t4 - t3, uptimeNanos);
+
+    }
+
+}
@@ -0,0 +1,219 @@
+import java.util.*;
+
+/**
+ * Abstract class of static utility functions for generating <i>synthetic</i> maps (`GameMap`s) of any size -- for scaling benchmarks
+ * of map-level machinery, well beyond the 82 Provinces of the standard map<br><br>
+ *
+ * A synthetic map is a `width` x `height` grid of cells (orthogonal neighbors are adjacent, as are diagonal neighbors at sea):<br>
+ *      ~ a few large seas are grown from random seeds until ~`SEA_PERCENT` of the cells are water<br>
+ *      ~ land cells touching the sea are coastal, others inland; coast ids run along the diagonals (`x + y`), so orthogonal
+ *        coastal neighbors can always coast-crawl<br>
+ *      ~ coastal cells with seas on opposite sides (north & south, or east & west) are split into two named coasts, like Spa or Bul
+ *        (any other sea borders the area, not a coast)<br>
+ *      ~ ~`SUPPLY_CENTER_PERCENT` of the land areas are supply centers; each Nation gets `HOME_CENTERS` home centers around a random capital<br><br>
+ *
+ * Maps are written as a definition (see `GameMap`) and parsed back, so they go through the same path as hand-written variants.
+ */
+public abstract class SyntheticMaps {
+
+
+    public static final int SEA_PERCENT             = 35;
+    public static final int SUPPLY_CENTER_PERCENT   = 25;
+    public static final int HOME_CENTERS            = 3;
+    public static final int CELLS_PER_SEA           = 150;  // ~ size of each sea, in cells
+
+    private static final int[] DX = {0, 1, 0, -1};  // N, E, S, W
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final String[] SUFFIXES = {"nc", "ec", "sc", "wc"};
+
+
+    /**
+     * Generates a synthetic map of (roughly) `numCells` cells -- plus 2 named coasts per split-coast area
+     * @param numCells Target # of grid cells (Provinces, before split coasts)
+     * @param random Source of randomness
+     * @return A new `GameMap`
+     */
+    public static GameMap generate(int numCells, SplittableRandom random) {
+        return GameMap.parse(generateDefinition(numCells, random));
+    }
+
+    /**
+     * @return The definition of a new synthetic map (see `generate(...)`)
+     */
+    public static String generateDefinition(int numCells, SplittableRandom random) {
+
+        if (numCells < 16)
+            throw new IllegalArgumentException(String.format("`%s::generateDefinition(...)`: too few cells (%d)",
+                    SyntheticMaps.class.getSimpleName(), numCells));
+
+        int width = (int) Math.ceil(Math.sqrt(numCells));
+        int height = (numCells + width - 1) / width;
+        int cells = width * height;
+
+        // 1) Seas, grown breadth-first-ish from random seeds (random frontier picks keep their shapes irregular)
+        boolean[] water = new boolean[cells];
+        int targetWater = cells * SEA_PERCENT / 100;
+        int numSeas = Math.max(1, targetWater / CELLS_PER_SEA);
+        List<Integer> frontier = new ArrayList<>();
+        for (int s = 0; s < numSeas; s++)
+            frontier.add(random.nextInt(cells));
+        for (int numWater = 0; numWater < targetWater && !frontier.isEmpty(); ) {
+            int pick = random.nextInt(frontier.size());
+            int cell = frontier.get(pick);
+            frontier.set(pick, frontier.get(frontier.size() - 1));
+            frontier.remove(frontier.size() - 1);
+            if (water[cell])
+                continue;
+            water[cell] = true;
+            numWater++;
+            for (int d = 0; d < 4; d++) {
+                int neighbor = neighbor(cell, d, width, height);
+                if (neighbor >= 0 && !water[neighbor])
+                    frontier.add(neighbor);
+            }
+        }
+
+        // 2) Coasts & split coasts
+        boolean[] coastal = new boolean[cells];
+        int[] splitAxis = new int[cells];  // -1: not split; 0: north/south coasts; 1: east/west coasts
+        Arrays.fill(splitAxis, -1);
+        for (int cell = 0; cell < cells; cell++) {
+            if (water[cell])
+                continue;
+            boolean[] seaAt = new boolean[4];
+            for (int d = 0; d < 4; d++) {
+                int neighbor = neighbor(cell, d, width, height);
+                seaAt[d] = (neighbor >= 0 && water[neighbor]);
+                coastal[cell] |= seaAt[d];
+            }
+            if (seaAt[0] && seaAt[2])
+                splitAxis[cell] = 0;
+            else if (seaAt[1] && seaAt[3])
+                splitAxis[cell] = 1;
+        }
+
+        // 3) Supply centers & home centers
+        boolean[] supplyCenter = new boolean[cells];
+        List<Integer> land = new ArrayList<>();
+        for (int cell = 0; cell < cells; cell++) {
+            if (!water[cell]) {
+                land.add(cell);
+                supplyCenter[cell] = random.nextInt(100) < SUPPLY_CENTER_PERCENT;
+            }
+        }
+        Nation[] home = new Nation[cells];
+        for (Nation nation : Nation.values()) {
+            if (land.isEmpty())
+                break;
+            int capital = land.get(random.nextInt(land.size()));
+            land.stream()
+                    .filter(cell -> supplyCenter[cell] && home[cell] == null)
+                    .sorted(Comparator.comparingInt(cell -> gridDistance(cell, capital, width)))
+                    .limit(HOME_CENTERS)
+                    .forEach(cell -> home[cell] = nation);
+        }
+
+        // 4) The definition itself
+        StringBuilder provinces = new StringBuilder(), adjacency = new StringBuilder();
+        provinces.append(String.format("# synthetic map: %d x %d cells\n", width, height));
+        for (int cell = 0; cell < cells; cell++) {
+
+            String id = id(cell, water);
+            int coastId = cellX(cell, width) + cellY(cell, width);
+            String homeName = (home[cell] == null ? "-" : home[cell].name());
+            int sc = (supplyCenter[cell] ? 1 : 0);
+
+            if (water[cell])
+                provinces.append(String.format("province %s WATER -1 NONE - - - 0 Sea %d\n", id, cell));
+            else if (splitAxis[cell] >= 0)
+                provinces.append(String.format("province %s INLAND -1 NONE - - %s %d Land %d\n", id, homeName, sc, cell));
+            else if (coastal[cell])
+                provinces.append(String.format("province %s COASTAL %d NORMAL - - %s %d Land %d\n", id, coastId, homeName, sc, cell));
+            else
+                provinces.append(String.format("province %s INLAND -1 NONE - - %s %d Land %d\n", id, homeName, sc, cell));
+
+            // Named coasts of a split area: one per side facing the sea
+            if (splitAxis[cell] >= 0) {
+                for (int d = splitAxis[cell]; d < 4; d += 2)
+                    provinces.append(String.format("province %s COASTAL %d SPLIT %s %s %s %d Land %d(%s)\n", id + SUFFIXES[d].toUpperCase(),
+                            coastId, id, SUFFIXES[d], homeName, sc, cell, SUFFIXES[d]));
+            }
+
+            // Adjacency: area-level neighbors, plus every named coast of a split neighbor that touches this cell
+            adjacency.append("adj ").append(id);
+            for (int d = 0; d < 8; d++) {
+                int neighbor = (d < 4 ? neighbor(cell, d, width, height) : diagonal(cell, d - 4, width, height));
+                if (neighbor < 0 || (d >= 4 && !(water[cell] && water[neighbor])))
+                    continue;
+                adjacency.append(' ').append(id(neighbor, water));
+                if (d < 4 && splitAxis[neighbor] >= 0) {
+                    for (int side = splitAxis[neighbor]; side < 4; side += 2) {
+                        if (coastTouches(neighbor, side, cell, water, coastal, splitAxis, width, height))
+                            adjacency.append(' ').append(id(neighbor, water)).append(SUFFIXES[side].toUpperCase());
+                    }
+                }
+            }
+            adjacency.append('\n');
+
+            if (splitAxis[cell] >= 0) {
+                for (int side = splitAxis[cell]; side < 4; side += 2) {
+                    adjacency.append("adj ").append(id).append(SUFFIXES[side].toUpperCase());
+                    for (int d = 0; d < 4; d++) {
+                        int neighbor = neighbor(cell, d, width, height);
+                        if (neighbor >= 0 && coastTouches(cell, side, neighbor, water, coastal, splitAxis, width, height))
+                            adjacency.append(' ').append(id(neighbor, water));
+                    }
+                    adjacency.append('\n');
+                }
+            }
+
+        }
+
+        return provinces.append('\n').append(adjacency).toString();
+
+    }
+
+
+    private static String id(int cell, boolean[] water) {
+        return (water[cell] ? "S" : "L") + cell;
+    }
+
+    private static int cellX(int cell, int width) {
+        return cell % width;
+    }
+
+    private static int cellY(int cell, int width) {
+        return cell / width;
+    }
+
+    private static int gridDistance(int cell, int cell2, int width) {
+        return Math.abs(cellX(cell, width) - cellX(cell2, width)) + Math.abs(cellY(cell, width) - cellY(cell2, width));
+    }
+
+    // Orthogonal neighbor in direction `d` (N, E, S, W), or -1 off the grid
+    private static int neighbor(int cell, int d, int width, int height) {
+        int x = cellX(cell, width) + DX[d], y = cellY(cell, width) + DY[d];
+        return (x < 0 || y < 0 || x >= width || y >= height ? -1 : y * width + x);
+    }
+
+    // Diagonal neighbor `d` (NE, SE, SW, NW), or -1 off the grid
+    private static int diagonal(int cell, int d, int width, int height) {
+        int x = cellX(cell, width) + DX[d] + DX[(d + 1) % 4], y = cellY(cell, width) + DY[d] + DY[(d + 1) % 4];
+        return (x < 0 || y < 0 || x >= width || y >= height ? -1 : y * width + x);
+    }
+
+    // Whether the named coast on side `side` of the split cell `split` touches its orthogonal neighbor `other`:
+    // the sea on that side itself, or unsplit coastal land beside the split cell whose own cell on that side is water too
+    private static boolean coastTouches(int split, int side, int other, boolean[] water, boolean[] coastal, int[] splitAxis,
+                                        int width, int height) {
+
+        if (other == neighbor(split, side, width, height))
+            return true;
+        if (water[other] || !coastal[other] || splitAxis[other] >= 0)
+            return false;
+        int otherSide = neighbor(other, side, width, height);
+        return (otherSide >= 0 && water[otherSide]);
+
+    }
+
+}
@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Abstract class of static utility functions for loading whole directories of DATC-syntax test cases (& their solutions) concurrently<br><br>
+ *
+ * Files are listed, sorted by name, and cut into chunks of `CHUNK_SIZE`; chunks are read (NIO -- memory-mapped from `MIN_MAPPED_SIZE` up)
+ * & parsed (`DATCParser.parseOrders(...)`) on a small shared thread pool, straight into their slots of the result.
+ * The result is therefore in file-name order, however the chunks finish.<br><br>
+ *
+ * Chunks keep the per-task overhead negligible for corpora of hundreds of thousands of (tiny) generated cases.
+ */
+public abstract class TestCaseLoader {
+
+
+    public static final int POOL_SIZE       = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    public static final int CHUNK_SIZE      = 64;         // files per task
+    public static final int MIN_MAPPED_SIZE = 64 * 1024;  // smaller files are read outright -- mapping costs more than it saves
+
+    // Daemon threads, so that an idle pool never keeps the JVM alive
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "test-case-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /**
+     * Loads every test case in `dirPath`, with its expected verdicts from the same-named file in `solutionsDirPath` (if any)
+     * @param dirPath Directory of test case files (Orders, in DATC syntax)
+     * @param solutionsDirPath Directory of solution files (one verdict per line), or null
+     * @return A new List of TestCases, named after their files, in file-name order
+     * @throws IOException If `dirPath` cannot be listed, or a file cannot be read
+     */
+    public static List<TestCase> load(Path dirPath, Path solutionsDirPath) throws IOException {
+
+        // (No per-file `stat`s: on a corpus of 100k+ tiny files, they would cost as much as reading the files)
+        List<Path> files = list(dirPath);
+        Set<String> solutions = new HashSet<>();
+        if (solutionsDirPath != null && Files.isDirectory(solutionsDirPath)) {
+            for (Path solution : list(solutionsDirPath))
+                solutions.add(solution.getFileName().toString());
+        }
+
+        TestCase[] testCases = new TestCase[files.size()];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = CHUNK_SIZE; from < files.size(); from += CHUNK_SIZE) {
+            int start = from, end = Math.min(from + CHUNK_SIZE, files.size());
+            futures.add(POOL.submit(() -> {
+                loadChunk(files, start, end, solutionsDirPath, solutions, testCases);
+                return null;
+            }));
+        }
+        loadChunk(files, 0, Math.min(CHUNK_SIZE, files.size()), solutionsDirPath, solutions, testCases);  // (the calling thread takes the first chunk)
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException cause)
+                    throw cause;
+                if (ex.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                throw new IllegalStateException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(String.format("`%s::load(...)`: interrupted while loading %s",
+                        TestCaseLoader.class.getSimpleName(), dirPath), ex);
+            }
+        }
+
+        return Arrays.asList(testCases);
+
+    }
+
+    /**
+     * Reads a (UTF-8) text file: memory-mapped if it is at least `MIN_MAPPED_SIZE` bytes, else read outright
+     * @param path File to read
+     * @return The file's contents
+     * @throws IOException If the file cannot be read
+     */
+    public static CharSequence readText(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException(String.format("`%s::readText(...)`: %s is too large (%d bytes)",
+                        TestCaseLoader.class.getSimpleName(), path, size));
+            if (size >= MIN_MAPPED_SIZE)
+                return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0);
+            return new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+        }
+
+    }
+
+
+    // Every entry of `dirPath`, sorted by name
+    private static List<Path> list(Path dirPath) throws IOException {
+        try (Stream<Path> stream = Files.list(dirPath)) {
+            return stream.sorted().toList();
+        }
+    }
+
+    private static void loadChunk(List<Path> files, int start, int end, Path solutionsDirPath, Set<String> solutions,
+                                  TestCase[] testCases) throws IOException {
+
+        for (int i = start; i < end; i++) {
+
+            Path file = files.get(i);
+            String fileName = file.getFileName().toString();
+            String name = (fileName.endsWith(DATCFileParser.TESTGAMES_FILE_EXT) ?
+                    fileName.substring(0, fileName.length() - DATCFileParser.TESTGAMES_FILE_EXT.length()) : fileName);
+
+            TestCase testCase = new TestCase(name, DATCParser.parseOrders(readText(file)));
+            if (solutions.contains(fileName))
+                testCase.setExpectedFields(DATCFileParser.parseSolution(readText(solutionsDirPath.resolve(fileName))));
+            testCases[i] = testCase;
+
+        }
+
+    }
+
+}
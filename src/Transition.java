@@ -0,0 +1,210 @@
+import java.util.*;
+
+/**
+ * The `Transition` class is the outcome of an adjudicated movement phase, derived from its resolved Orders in linear time:<br>
+ *      ~ the new unit placement (see `apply(...)`)<br>
+ *      ~ the dislodged units, with the successful Move that dislodged each of them (and thus the attacker's origin)<br>
+ *      ~ the <i>occupied</i> areas (areas holding a unit after the phase) & the <i>embattled</i> areas (areas left empty by a standoff)<br>
+ *      ~ a RETREAT Order (initially a PIFF, i.e. `pos1 == null`) for every dislodged unit<br><br>
+ *
+ * Every lookup goes through arrays indexed by area (see `BoardState.area(...)`) -- there are no nested scans over the Orders.
+ */
+public final class Transition {
+
+
+    private static final Province[] PROVINCES = Province.values();
+
+
+    private final List<Order>   movementOrders;
+    private final Order[]       orderAt;      // [area] -> movement Order of the unit that started there
+    private final Order[]       dislodgedBy;  // [area] -> successful Move that dislodged the unit in the area (or null)
+    private final boolean[]     occupied;
+    private final boolean[]     embattled;
+    private final List<Order>   retreats;
+
+
+    private Transition(List<Order> movementOrders) {
+        this.movementOrders = movementOrders;
+        this.orderAt = new Order[PROVINCES.length];
+        this.dislodgedBy = new Order[PROVINCES.length];
+        this.occupied = new boolean[PROVINCES.length];
+        this.embattled = new boolean[PROVINCES.length];
+        this.retreats = new ArrayList<>();
+    }
+
+
+    /**
+     * Computes the transition of a resolved movement phase<br><br>
+     *
+     * <i><u>Mutator function!</u></i> Sets `dislodged` on every dislodged movement Order
+     *
+     * @param movementOrders Resolved movement phase Orders (one per unit on the board)
+     * @return A new `Transition`
+     */
+    @SuppressWarnings("PointlessBooleanExpression")
+    public static Transition of(Collection<Order> movementOrders) {
+
+        Transition transition = new Transition(List.copyOf(movementOrders));
+        Order[] arrivals = new Order[PROVINCES.length];  // [area] -> successful Move into the area
+
+        for (Order order : transition.movementOrders) {
+            transition.orderAt[BoardState.area(order.pos0)] = order;
+            if (order.orderType == OrderType.MOVE && order.verdict == true)
+                arrivals[BoardState.area(order.pos1)] = order;  // 2+ units cannot succeed to the same area
+        }
+
+        // Only used to tell bounces apart from failed convoys: verdicts are already set, so nothing is re-adjudicated
+        Judge pathJudge = new Judge(transition.movementOrders);
+
+        for (Order order : transition.movementOrders) {
+
+            int area = BoardState.area(order.pos0);
+
+            if (order.orderType == OrderType.MOVE && order.verdict == true) {
+                transition.occupied[BoardState.area(order.pos1)] = true;
+                continue;
+            }
+
+            if (arrivals[area] != null) {
+                transition.dislodgedBy[area] = arrivals[area];
+                order.dislodged = true;
+                Order retreatOrder = new Order(order.owner, order.unitType, order.pos0, OrderType.RETREAT, null, null);
+                retreatOrder.dislodged = true;
+                transition.retreats.add(retreatOrder);
+            } else {
+                transition.occupied[area] = true;
+            }
+
+            // A failed Move that reached its destination bounced there -- a standoff, unless it lost a head-to-head battle
+            if (order.orderType == OrderType.MOVE && pathJudge.pathSuccessful(order, true, transition.movementOrders)) {
+                Order opponent = transition.orderAt[BoardState.area(order.pos1)];
+                boolean headToHead = (opponent != null && opponent.orderType == OrderType.MOVE &&
+                        BoardState.area(opponent.pos1) == area);
+                if (!headToHead)
+                    transition.embattled[BoardState.area(order.pos1)] = true;
+            }
+
+        }
+
+        // Areas a unit ended up in are not "left empty" -- `embattled` only matters for otherwise-empty areas
+        for (int area = 0; area < PROVINCES.length; area++) {
+            if (transition.occupied[area])
+                transition.embattled[area] = false;
+        }
+
+        return transition;
+
+    }
+
+
+    /**
+     * Applies this transition to the board it was adjudicated on: rebuilds the unit placement, and moves on to the next phase
+     * (the retreats phase if any unit was dislodged)
+     * @param before Board before the movement phase
+     * @return A new `BoardState` after the movement phase
+     */
+    @SuppressWarnings("PointlessBooleanExpression")
+    public BoardState apply(BoardState before) {
+
+        BoardState.Editor editor = before.edit().clearUnits();
+        for (Order order : movementOrders) {
+            if (order.orderType == OrderType.MOVE && order.verdict == true)
+                editor.placeUnit(order.pos1, order.owner, order.unitType);
+            else if (dislodgedBy[BoardState.area(order.pos0)] == null)
+                editor.placeUnit(order.pos0, order.owner, order.unitType);
+        }
+
+        return editor.setPhase(before.year, Season.rotate(before.season, !retreats.isEmpty())).build();
+
+    }
+
+
+    public boolean isDislodged(Province province) {
+        return dislodgedBy[BoardState.area(province)] != null;
+    }
+
+    /**
+     * @param province Location of a (dislodged) unit
+     * @return The successful Move Order that dislodged the unit in `province`, or null if it was not dislodged
+     */
+    public Order dislodgingMove(Province province) {
+        return dislodgedBy[BoardState.area(province)];
+    }
+
+    /**
+     * @param province Location of a (dislodged) unit
+     * @return Origin of the unit that dislodged the unit in `province`, or null if it was not dislodged
+     */
+    public Province attackerOrigin(Province province) {
+        Order move = dislodgedBy[BoardState.area(province)];
+        return (move == null ? null : move.pos0);
+    }
+
+    public boolean isOccupied(Province province) {
+        return occupied[BoardState.area(province)];
+    }
+
+    public boolean isEmbattled(Province province) {
+        return embattled[BoardState.area(province)];
+    }
+
+    /**
+     * @return Every Province (incl. all coasts) of every area holding a unit after the phase
+     */
+    public Collection<Province> occupiedAreas() {
+        return new HashSet<>(ProvinceMasks.toProvinces(occupiedMask()));
+    }
+
+    /**
+     * @return Every Province (incl. all coasts) of every area left empty by a standoff
+     */
+    public Collection<Province> embattledAreas() {
+        return new HashSet<>(ProvinceMasks.toProvinces(embattledMask()));
+    }
+
+    /**
+     * @return A new Province mask (see `ProvinceMasks`) of every Province (incl. all coasts) of every occupied area
+     */
+    public long[] occupiedMask() {
+        return maskOf(occupied);
+    }
+
+    /**
+     * @return A new Province mask (see `ProvinceMasks`) of every Province (incl. all coasts) of every embattled area
+     */
+    public long[] embattledMask() {
+        return maskOf(embattled);
+    }
+
+    /**
+     * @return The movement Orders of every dislodged unit
+     */
+    public List<Order> getDislodged() {
+        List<Order> dislodged = new ArrayList<>();
+        for (Order order : movementOrders) {
+            if (dislodgedBy[BoardState.area(order.pos0)] != null)
+                dislodged.add(order);
+        }
+        return dislodged;
+    }
+
+    /**
+     * @return A RETREAT Order (a PIFF, until a destination is chosen) for every dislodged unit
+     */
+    public List<Order> getRetreats() {
+        return retreats;
+    }
+
+
+    private static long[] maskOf(boolean[] areas) {
+
+        long[] mask = ProvinceMasks.empty();
+        for (int area = 0; area < areas.length; area++) {
+            if (areas[area])
+                ProvinceMasks.setArea(mask, PROVINCES[area]);
+        }
+        return mask;
+
+    }
+
+}
@@ -0,0 +1,150 @@
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * A bounded, thread-safe cache keyed by 64-bit position hashes (see `Zobrist`)<br><br>
+ *
+ * The table is a fixed-size, direct-mapped array: each key maps to exactly one slot, and a new entry always replaces the old occupant.
+ * Memory use is therefore fixed at construction, no matter how many positions pass through.<br><br>
+ *
+ * Slots are guarded by a small set of 'striped' locks (slot index modulo # of stripes), so concurrent readers & writers rarely contend.
+ *
+ * @param <V> Type of the stored values (e.g. adjudication verdicts, evaluations)
+ */
+public class TranspositionTable<V> {
+
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int DEFAULT_STRIPES  = 16;
+
+
+    private final long[]    keys;
+    private final Object[]  values;
+    private final Object[]  locks;
+    private final int       slotMask;
+    private final int       stripeMask;
+
+    private final LongAdder hits        = new LongAdder();
+    private final LongAdder misses      = new LongAdder();
+    private final LongAdder overwrites  = new LongAdder();
+
+
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param capacity # of slots, rounded up to the next power of 2
+     * @param stripes # of locks, rounded up to the next power of 2
+     */
+    public TranspositionTable(int capacity, int stripes) {
+
+        if (capacity <= 0 || stripes <= 0)
+            throw new IllegalArgumentException(String.format("`%s`: capacity (%d) & stripes (%d) must be positive",
+                    this.getClass().getSimpleName(), capacity, stripes));
+
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        int numLocks = Math.min(slots, Integer.highestOneBit(stripes - 1) << 1);
+        slots = Math.max(slots, 1);
+        numLocks = Math.max(numLocks, 1);
+
+        this.keys = new long[slots];
+        this.values = new Object[slots];
+        this.locks = new Object[numLocks];
+        for (int i = 0; i < numLocks; i++)
+            this.locks[i] = new Object();
+        this.slotMask = slots - 1;
+        this.stripeMask = numLocks - 1;
+
+    }
+
+
+    private int slotOf(long key) {
+        return (int) (key ^ (key >>> 32)) & slotMask;
+    }
+
+
+    /**
+     * @param key Position hash
+     * @return The value stored for `key`, or null if absent (or since overwritten)
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+
+        int slot = slotOf(key);
+        synchronized (locks[slot & stripeMask]) {
+            Object value = values[slot];
+            if (value != null && keys[slot] == key) {
+                hits.increment();
+                return (V) value;
+            }
+            misses.increment();
+            return null;
+        }
+
+    }
+
+    public void put(long key, V value) {
+
+        if (value == null)
+            throw new IllegalArgumentException(String.format("`%s::put(...)`: null values are not allowed", this.getClass().getSimpleName()));
+
+        int slot = slotOf(key);
+        synchronized (locks[slot & stripeMask]) {
+            if (values[slot] != null && keys[slot] != key)
+                overwrites.increment();
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+    }
+
+    /**
+     * Returns the value stored for `key`, computing & storing it first if absent.<br><br>
+     *
+     * `function` runs <i>outside</i> of any lock, so two threads missing on the same key may both compute it (the last one is kept)
+     *
+     * @param key Position hash
+     * @param function Function computing the value for `key`
+     * @return The (possibly new) value for `key`
+     */
+    public V computeIfAbsent(long key, LongFunction<V> function) {
+
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+
+    }
+
+    public void clear() {
+
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int slot = stripe; slot < values.length; slot += locks.length)
+                    values[slot] = null;
+            }
+        }
+
+    }
+
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getOverwrites() {
+        return overwrites.sum();
+    }
+
+}
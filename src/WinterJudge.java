@@ -1,6 +1,13 @@
 import java.util.Collection;
 import java.util.LinkedHashMap;
 
+/**
+ * `WinterJudge` adjudicates adjustment (Winter) phases: BUILD & DESTROY Orders, against each Nation's # of builds available<br><br>
+ *
+ * Builds available come either from a hand-supplied `buildsAvailabilityMap`, or -- given a `BoardState` -- from the board itself
+ *      (supply centers owned - units; see `AdjustmentEngine`), in which case builds & destroys are also checked against the board
+ *      (an owned, empty home supply center that fits the unit type / an existing unit of the ordering Nation).
+ */
 public class WinterJudge extends Judge implements HomogeneousState {
 
 
@@ -33,27 +40,59 @@ public class WinterJudge extends Judge implements HomogeneousState {
     }
 
 
+    public WinterJudge(Collection<Order> orders, BoardState boardState) {
+        super(orders);
+        this.boardState = boardState;
+        this.buildsAvailabilityMap = new LinkedHashMap<>();
+        for (Nation nation : Nation.values())
+            buildsAvailabilityMap.put(nation, AdjustmentEngine.adjustment(boardState, nation));
+    }
+
+
     protected LinkedHashMap<Nation, Integer> buildsAvailabilityMap;
 
+    protected BoardState    boardState = null;  // nullable
+    private   boolean[]     builtAreas = null;  // areas already built in, this phase
+
 
     public LinkedHashMap<Nation, Integer> getBuildsAvailabilityMap() {
         return buildsAvailabilityMap;
     }
 
 
+    /**
+     * Adjudicates every BUILD & DESTROY Order once, in iteration order
+     *
+     * @postcondition Every order in `orders` is definitively resolved and has a verdict
+     */
     @Override
-    protected boolean adjudicate(Order order, boolean optimistic) {
+    public void judge() {
+
+        enforceStasis();  // once per phase, not once per Order
+        this.builtAreas = new boolean[Province.values().length];
+
+        for (Order order : orders) {
+            order.verdict = adjudicate(order, true);
+            order.resolved = true;
+        }
 
-        enforceStasis();
+    }
+
+    @Override
+    protected boolean adjudicate(Order order, boolean optimistic) {
 
         if (order.orderType == OrderType.BUILD) {
 
             if (order.pos0 == null)
                 return (waiveBuildsFor(order.owner) >= 0);  // Waiving is fine, if going at least +0
+            else if (boardState != null && !buildFitsBoard(order))
+                return false;
             else if (order.owner == order.pos0.owner) {  // This implicitly checks for Home SC Ownership
-                if (decrementBuildsFor(order.owner) >= 0)
+                if (decrementBuildsFor(order.owner) >= 0) {
+                    if (builtAreas != null)
+                        builtAreas[BoardState.area(order.pos0)] = true;
                     return true;
-                else {
+                } else {
                     incrementBuildsFor(order.owner);  // Undo the decrement
                     return false;
                 }
@@ -65,6 +104,8 @@ public class WinterJudge extends Judge implements HomogeneousState {
 
             if (order.pos0 == null)
                 return (waiveBuildsFor(order.owner) == 0);  // Zero destroys is only possible with +0 in the bank
+            if (boardState != null && boardState.unitOwnerAt(order.pos0) != order.owner)
+                return false;
 
             if (incrementBuildsFor(order.owner) <= 0)
                 return true;
@@ -99,6 +140,16 @@ public class WinterJudge extends Judge implements HomogeneousState {
     }
 
 
+    // Builds need a home supply center that is still owned, empty (incl. not built in already this phase), & fits the unit type
+    private boolean buildFitsBoard(Order order) {
+
+        return boardState.supplyCenterOwnerOf(order.pos0) == order.owner && !boardState.hasUnitAt(order.pos0) &&
+                (builtAreas == null || !builtAreas[BoardState.area(order.pos0)]) &&
+                AdjustmentEngine.canBuild(order.unitType, order.pos0);
+
+    }
+
+
     protected void populateBuildsMap(Nation... nations) {
 
         for (Nation nation : nations)
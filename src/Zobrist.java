@@ -0,0 +1,88 @@
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * Abstract class of static utility functions re: <a href="https://en.wikipedia.org/wiki/Zobrist_hashing">Zobrist hashing</a> of board positions<br><br>
+ *
+ * Every (location, owner, unit type), every (supply center, owner), and every Season is assigned a fixed random 64-bit key.
+ * A position's hash is the XOR of the keys of all its features, so adding / removing a single feature is one XOR -- i.e. O(1) per unit move.<br><br>
+ *
+ * Keys are generated from a fixed seed, so hashes are stable between runs (and machines).
+ */
+public abstract class Zobrist {
+
+    public static final long SEED = 0x2501_1901_D1B5_4A32L;
+
+    private static final int NUM_PROVINCES  = Province.values().length;
+    private static final int NUM_NATIONS    = Nation.values().length;
+    private static final int NUM_UNIT_TYPES = UnitType.values().length;
+
+    private static final long[] UNIT_KEYS           = new long[NUM_PROVINCES * NUM_NATIONS * NUM_UNIT_TYPES];
+    private static final long[] SUPPLY_CENTER_KEYS  = new long[NUM_PROVINCES * NUM_NATIONS];
+    private static final long[] SEASON_KEYS         = new long[Season.values().length];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < UNIT_KEYS.length; i++)
+            UNIT_KEYS[i] = random.nextLong();
+        for (int i = 0; i < SUPPLY_CENTER_KEYS.length; i++)
+            SUPPLY_CENTER_KEYS[i] = random.nextLong();
+        for (int i = 0; i < SEASON_KEYS.length; i++)
+            SEASON_KEYS[i] = random.nextLong();
+    }
+
+
+    public static long unitKey(int locationOrdinal, int ownerOrdinal, int unitTypeOrdinal) {
+        return UNIT_KEYS[(locationOrdinal * NUM_NATIONS + ownerOrdinal) * NUM_UNIT_TYPES + unitTypeOrdinal];
+    }
+
+    public static long unitKey(Province location, Nation owner, UnitType unitType) {
+        return unitKey(location.ordinal(), owner.ordinal(), unitType.ordinal());
+    }
+
+    /**
+     * Key of a supply center's ownership; unowned supply centers contribute nothing (0)
+     */
+    public static long supplyCenterKey(int areaOrdinal, Nation owner) {
+        return (owner == null ? 0L : SUPPLY_CENTER_KEYS[areaOrdinal * NUM_NATIONS + owner.ordinal()]);
+    }
+
+    public static long seasonKey(Season season) {
+        return SEASON_KEYS[season.ordinal()];
+    }
+
+
+    /**
+     * Hashes the core fields of an Order (not its metadata) into a well-mixed 64-bit value
+     * @param order Order to hash
+     * @return 64-bit hash of `order`
+     */
+    public static long hashOrder(Order order) {
+        return mix64(Orders.pack(order));
+    }
+
+    /**
+     * Hashes a Collection of Orders, <i>independent of iteration order</i>: the XOR of `hashOrder(...)` over all Orders.<br>
+     * Replacing a single Order therefore updates the hash in O(1): `hash ^ hashOrder(oldOrder) ^ hashOrder(newOrder)`
+     * @param orders Collection of Orders to hash
+     * @return 64-bit hash of `orders`
+     */
+    public static long hashOrders(Collection<Order> orders) {
+
+        long hash = 0L;
+        for (Order order : orders)
+            hash ^= hashOrder(order);
+        return hash;
+
+    }
+
+    /**
+     * 'Finalizer' step of the SplitMix64 generator; spreads every input bit over the whole output
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}